@@ -0,0 +1,62 @@
+package com.twizzle.server.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twizzle.server.services.CacheManager;
+import com.twizzle.server.services.DBService;
+import com.twizzle.server.services.InMemoryDbActionExecutor;
+import com.twizzle.server.services.LocalCacheInvalidationBus;
+import com.twizzle.server.services.LoggingService;
+import com.twizzle.server.services.PerformanceMonitoringService;
+import com.twizzle.server.services.ResourceVersions;
+import com.twizzle.server.services.SecurityJournal;
+import com.twizzle.server.services.TracingService;
+import com.twizzle.server.services.TrafficRecorder;
+import com.twizzle.server.utils.BulkheadExecutor;
+import com.twizzle.server.utils.JwtAuthenticationFilter;
+import com.twizzle.server.utils.JwtTokenUtil;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal Spring context holding the real beans the benchmarks exercise, wired as in the server but without web
+ * server, JPA or Oracle. DB actions run against {@link InMemoryDbActionExecutor}. Log and security-journal files are
+ * written under {@code server/logs/} relative to the working directory, as in the application.
+ */
+public final class BenchmarkContext {
+
+    /** 64+ byte HS512 secret, only ever used in benchmarks. */
+    public static final String JWT_SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private BenchmarkContext() {
+    }
+
+    public static AnnotationConfigApplicationContext start(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jwt.secret", JWT_SECRET);
+        properties.put("twizzle.security.public-urls", "/api/v1/auth/**,/api/v1/health/**");
+        properties.put("app.database.executor", "memory");
+        properties.put("app.database.memory.seed-posts", 1000);
+        properties.put("app.cache.warm-up.enabled", false);
+        properties.put("app.database.package.name", "benchmark");
+        properties.putAll(overrides);
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.registerBean(ObjectMapper.class);
+        context.registerBean("cacheRefreshExecutor", BulkheadExecutor.class,
+                () -> new BulkheadExecutor("cache-refresh"));
+        context.register(SecurityJournal.class, LoggingService.class, TracingService.class,
+                LocalCacheInvalidationBus.class, CacheManager.class, ResourceVersions.class,
+                InMemoryDbActionExecutor.class, DBService.class, PerformanceMonitoringService.class,
+                TrafficRecorder.class, JwtTokenUtil.class, JwtAuthenticationFilter.class);
+        context.refresh();
+        return context;
+    }
+
+    public static AnnotationConfigApplicationContext start() {
+        return start(Map.of());
+    }
+}
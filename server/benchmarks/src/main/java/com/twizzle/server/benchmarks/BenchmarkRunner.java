@@ -0,0 +1,36 @@
+package com.twizzle.server.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Runs every benchmark whose name matches one of the arguments (all of them
+ * without arguments) with the GC profiler attached, so each result comes with {@code gc.alloc.rate.norm}, the bytes
+ * allocated per operation. That number is stable across machines and is the first thing to compare before and after a
+ * change.
+ *
+ * <p>
+ * For JMH's own command line (other profilers, JSON output, ...) use
+ * {@code java -cp target/benchmarks.jar org.openjdk.jmh.Main}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder().addProfiler(GCProfiler.class).forks(1).warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2)).measurementIterations(5).measurementTime(TimeValue.seconds(2));
+        if (args.length == 0) {
+            options.include(".*Benchmark.*");
+        }
+        for (String pattern : args) {
+            options.include(pattern);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.twizzle.server.config;
+
+import com.twizzle.server.benchmarks.BenchmarkContext;
+import com.twizzle.server.services.PerformanceMonitoringService;
+import com.twizzle.server.services.TrafficRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link PerformanceInterceptor}: resolving the metrics key from the matched route template
+ * ({@code getEndpointPath}) and the full pre/after-completion pair including the endpoint metrics update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PerformanceInterceptorBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private PerformanceInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final Object handler = new Object();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        interceptor = new PerformanceInterceptor(context.getBean(PerformanceMonitoringService.class),
+                context.getBean(TrafficRecorder.class));
+        request = new MockHttpServletRequest("GET", "/api/v1/posts/12345/comments");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/posts/{postId}/comments");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String endpointPath() {
+        return PerformanceInterceptor.getEndpointPath(request);
+    }
+
+    @Benchmark
+    public void interceptRequest() {
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+}
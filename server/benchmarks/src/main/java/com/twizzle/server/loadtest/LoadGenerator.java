@@ -0,0 +1,345 @@
+package com.twizzle.server.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twizzle.server.services.TrafficRecorder;
+import com.twizzle.server.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for a running server, typically started with {@code app.database.executor=memory}.
+ *
+ * <p>
+ * Requests are sent at precomputed arrival times (Poisson or evenly spaced at {@code --rate} per second, or the
+ * recorded timeline) whether or not earlier requests have completed, so a slow server gets a growing queue instead of
+ * a politely slower client. Latency is measured from each request's <em>intended</em> send time, which corrects for
+ * coordinated omission: time a request spent waiting because the server (or this generator) was behind is counted.
+ * The uncorrected service time, from the actual send, is reported next to it. Requests that would exceed
+ * {@code --max-in-flight} are not sent and counted as dropped.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.twizzle.server.loadtest.LoadGenerator --base-url=http://localhost:8080 \
+ *     --rate=200 --duration=60 --username=alice --password=secret [--traffic=traffic.json --replay=timeline]
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private final Options options;
+    private final HttpClient client;
+    private final ExecutorService httpExecutor;
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong maxSendLagNanos = new AtomicLong();
+    private volatile String cookies;
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+        this.httpExecutor = Executors.newFixedThreadPool(options.threads);
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).executor(httpExecutor).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LoadGenerator generator = new LoadGenerator(options);
+        try {
+            generator.run(System.out);
+        } finally {
+            generator.httpExecutor.shutdownNow();
+        }
+    }
+
+    private void run(PrintStream out) throws IOException, InterruptedException {
+        List<TrafficRecorder.Entry> recording = options.traffic != null
+                ? new ObjectMapper().readValue(Path.of(options.traffic).toFile(), new TypeReference<>() {
+                })
+                : List.of();
+
+        if (options.username != null) {
+            send(TrafficMix.login(options.username, options.password)).join();
+            if (cookies == null) {
+                out.println("Login failed; authenticated routes will answer 401");
+            }
+        } else {
+            out.println("No --username given; authenticated routes will answer 401");
+        }
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        if ("timeline".equals(options.replay)) {
+            if (recording.isEmpty()) {
+                throw new IllegalArgumentException("--replay=timeline needs a non-empty --traffic recording");
+            }
+            out.printf(Locale.ROOT, "Replaying %d recorded requests at %.1fx speed%n", recording.size(),
+                    options.speed);
+            replayTimeline(recording, start, measureFrom);
+        } else {
+            TrafficMix mix = recording.isEmpty()
+                    ? TrafficMix.defaults(options.posts, options.users, options.username, options.password)
+                    : TrafficMix.fromRecording(recording, options.users, options.username, options.password);
+            out.printf(Locale.ROOT, "Sending %.1f req/s (%s arrivals) for %ds after %ds warm-up over %s%n",
+                    options.rate, options.arrivals, options.durationSeconds, options.warmupSeconds, mix.routes());
+            runOpenModel(mix, start, measureFrom);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.timeoutMillis);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        report(out, (System.nanoTime() - measureFrom) / 1e9);
+    }
+
+    private void runOpenModel(TrafficMix mix, long start, long measureFrom) {
+        Random random = new Random();
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        double meanGapNanos = 1e9 / options.rate;
+        double intended = start;
+        while (intended < end) {
+            fire(mix.next(random), (long) intended, measureFrom);
+            intended += "poisson".equals(options.arrivals)
+                    ? -Math.log(1 - random.nextDouble()) * meanGapNanos
+                    : meanGapNanos;
+        }
+    }
+
+    private void replayTimeline(List<TrafficRecorder.Entry> recording, long start, long measureFrom) {
+        Random random = new Random();
+        long firstOffset = recording.get(0).offsetMillis();
+        for (TrafficRecorder.Entry entry : recording) {
+            if (TrafficMix.LOGIN_ROUTE.equals(entry.route()) && options.username == null) {
+                continue;
+            }
+            long offsetNanos = (long) (TimeUnit.MILLISECONDS.toNanos(entry.offsetMillis() - firstOffset)
+                    / options.speed);
+            fire(TrafficMix.replay(entry, random, options.users, options.username, options.password),
+                    start + offsetNanos, measureFrom);
+        }
+    }
+
+    /**
+     * Waits for the intended send time and sends without waiting for the response. Latency is recorded against the
+     * intended time even if this thread is late.
+     */
+    private void fire(TrafficMix.Request request, long intendedNanos, long measureFrom) {
+        long wait;
+        while ((wait = intendedNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        boolean measured = intendedNanos >= measureFrom;
+        RouteStats routeStats = stats.computeIfAbsent(request.route(), k -> new RouteStats());
+        if (inFlight.get() >= options.maxInFlight) {
+            if (measured) {
+                routeStats.dropped.increment();
+            }
+            return;
+        }
+
+        long sentNanos = System.nanoTime();
+        maxSendLagNanos.accumulateAndGet(sentNanos - intendedNanos, Math::max);
+        inFlight.incrementAndGet();
+        send(request).whenComplete((status, error) -> {
+            long doneNanos = System.nanoTime();
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            routeStats.corrected.record(doneNanos - intendedNanos);
+            routeStats.service.record(doneNanos - sentNanos);
+            if (error != null || status >= 400) {
+                routeStats.errors.increment();
+            }
+        });
+    }
+
+    private CompletableFuture<Integer> send(TrafficMix.Request request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.baseUrl + request.path()))
+                .timeout(Duration.ofMillis(options.timeoutMillis)).header("Accept", "application/json");
+        String cookieHeader = cookies;
+        if (cookieHeader != null) {
+            builder.header("Cookie", cookieHeader);
+        }
+        if (request.body() != null) {
+            builder.header("Content-Type", "application/json");
+            builder.method(request.method(), HttpRequest.BodyPublishers.ofString(request.body()));
+        } else {
+            builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return client.sendAsync(builder.build(), HttpResponse.BodyHandlers.discarding()).thenApply(response -> {
+            updateCookies(response);
+            return response.statusCode();
+        });
+    }
+
+    /**
+     * Keeps the session cookies set by login and by the JWT filter's automatic refresh. They are marked
+     * {@code Secure}, which the JDK cookie manager would refuse to send over plain HTTP, so they are tracked here.
+     */
+    private void updateCookies(HttpResponse<?> response) {
+        List<String> setCookies = response.headers().allValues("Set-Cookie");
+        if (setCookies.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            Map<String, String> jar = new TreeMap<>();
+            if (cookies != null) {
+                for (String pair : cookies.split("; ")) {
+                    int eq = pair.indexOf('=');
+                    jar.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+            for (String setCookie : setCookies) {
+                String pair = setCookie.split(";", 2)[0];
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    jar.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+                }
+            }
+            List<String> pairs = new ArrayList<>();
+            jar.forEach((name, value) -> pairs.add(name + "=" + value));
+            cookies = String.join("; ", pairs);
+        }
+    }
+
+    private void report(PrintStream out, double measuredSeconds) {
+        out.printf(Locale.ROOT, "%nLatency from intended send time (ms), coordinated-omission corrected:%n");
+        out.printf(Locale.ROOT, "%-36s %8s %7s %7s %9s %9s %9s %9s %9s | %9s%n", "route", "count", "errors",
+                "dropped", "p50", "p90", "p99", "p99.9", "max", "svc p99");
+
+        LatencyHistogram.Snapshot allCorrected = LatencyHistogram.Snapshot.empty();
+        LatencyHistogram.Snapshot allService = LatencyHistogram.Snapshot.empty();
+        long errors = 0;
+        long dropped = 0;
+        for (Map.Entry<String, RouteStats> entry : new TreeMap<>(stats).entrySet()) {
+            RouteStats routeStats = entry.getValue();
+            LatencyHistogram.Snapshot corrected = routeStats.corrected.snapshot();
+            LatencyHistogram.Snapshot service = routeStats.service.snapshot();
+            printRow(out, entry.getKey(), corrected, service, routeStats.errors.sum(), routeStats.dropped.sum());
+            allCorrected = allCorrected.merge(corrected);
+            allService = allService.merge(service);
+            errors += routeStats.errors.sum();
+            dropped += routeStats.dropped.sum();
+        }
+        printRow(out, "all", allCorrected, allService, errors, dropped);
+
+        out.printf(Locale.ROOT, "%nThroughput: %.1f completed req/s over %.1fs; max send lag %.1f ms%n",
+                allCorrected.count() / measuredSeconds, measuredSeconds, maxSendLagNanos.get() / 1e6);
+        if (maxSendLagNanos.get() > TimeUnit.MILLISECONDS.toNanos(10)) {
+            out.println("The generator itself fell behind schedule; the corrected numbers still account for it, but"
+                    + " consider more --threads or a second generator.");
+        }
+    }
+
+    private static void printRow(PrintStream out, String route, LatencyHistogram.Snapshot corrected,
+            LatencyHistogram.Snapshot service, long errors, long dropped) {
+        out.printf(Locale.ROOT, "%-36s %8d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f | %9.2f%n", route, corrected.count(),
+                errors, dropped, corrected.percentileMillis(50), corrected.percentileMillis(90),
+                corrected.percentileMillis(99), corrected.percentileMillis(99.9), corrected.maxMillis(),
+                service.percentileMillis(99));
+    }
+
+    private static final class RouteStats {
+        private final LatencyHistogram corrected = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+
+    /**
+     * Command line options, given as {@code --name=value}.
+     */
+    private static final class Options {
+        private String baseUrl = "http://localhost:8080";
+        private double rate = 100;
+        private String arrivals = "poisson";
+        private int durationSeconds = 60;
+        private int warmupSeconds = 10;
+        private String traffic;
+        private String replay = "mix";
+        private double speed = 1.0;
+        private String username;
+        private String password = "";
+        private int posts = 1000;
+        private int users = 100;
+        private int maxInFlight = 10_000;
+        private int threads = 8;
+        private long timeoutMillis = 10_000;
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+
+            Options options = new Options();
+            options.baseUrl = stripTrailingSlash(values.getOrDefault("base-url", options.baseUrl));
+            options.rate = doubleValue(values, "rate", options.rate);
+            options.arrivals = values.getOrDefault("arrivals", options.arrivals);
+            options.durationSeconds = intValue(values, "duration", options.durationSeconds);
+            options.warmupSeconds = intValue(values, "warmup", options.warmupSeconds);
+            options.traffic = values.get("traffic");
+            options.replay = values.getOrDefault("replay", options.replay);
+            options.speed = doubleValue(values, "speed", options.speed);
+            options.username = values.get("username");
+            options.password = values.getOrDefault("password", options.password);
+            options.posts = intValue(values, "posts", options.posts);
+            options.users = intValue(values, "users", options.users);
+            options.maxInFlight = intValue(values, "max-in-flight", options.maxInFlight);
+            options.threads = intValue(values, "threads", options.threads);
+            options.timeoutMillis = longValue(values, "timeout-ms", options.timeoutMillis);
+
+            if (options.rate <= 0 || options.speed <= 0) {
+                throw new IllegalArgumentException("--rate and --speed must be positive");
+            }
+            if (!"poisson".equals(options.arrivals) && !"constant".equals(options.arrivals)) {
+                throw new IllegalArgumentException("--arrivals must be poisson or constant");
+            }
+            if (!"mix".equals(options.replay) && !"timeline".equals(options.replay)) {
+                throw new IllegalArgumentException("--replay must be mix or timeline");
+            }
+            return options;
+        }
+
+        private static int intValue(Map<String, String> values, String name, int defaultValue) {
+            return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+        }
+
+        private static long longValue(Map<String, String> values, String name, long defaultValue) {
+            return values.containsKey(name) ? Long.parseLong(values.get(name)) : defaultValue;
+        }
+
+        private static double doubleValue(Map<String, String> values, String name, double defaultValue) {
+            return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+        }
+
+        private static String stripTrailingSlash(String url) {
+            return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.twizzle.server.loadtest;
+
+import com.twizzle.server.services.TrafficRecorder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Weighted set of request generators, one per route. Either the built-in mix of the main read and write endpoints, or
+ * the mix captured by the server's traffic recorder ({@code GET /monitoring/traffic}), where each route is weighted by
+ * how often it was seen and replays the concrete paths that were recorded for it.
+ */
+final class TrafficMix {
+
+    static final String LOGIN_ROUTE = "POST /auth/login";
+    static final String LIKE_ROUTE = "POST /posts/like/{postId}";
+
+    /** One request to send; {@code body} is null for requests without one. */
+    record Request(String route, String method, String path, String body) {
+    }
+
+    private final List<String> routes = new ArrayList<>();
+    private final List<Function<Random, Request>> generators = new ArrayList<>();
+    private final List<Double> cumulativeWeights = new ArrayList<>();
+    private double totalWeight;
+
+    private TrafficMix() {
+    }
+
+    /**
+     * The default mix: mostly feed reads, plus likes, comment reads, profile lookups and logins. Ids are drawn
+     * uniformly from {@code 1..posts} and user names from {@code user0..user<users-1>}, which matches the posts
+     * seeded by the in-memory DB executor.
+     */
+    static TrafficMix defaults(int posts, int users, String username, String password) {
+        TrafficMix mix = new TrafficMix();
+        mix.add("GET /posts/all", 45, random -> get("GET /posts/all", "/posts/all?page=" + random.nextInt(10)
+                + "&size=10"));
+        mix.add(LIKE_ROUTE, 15, random -> {
+            long postId = 1 + random.nextInt(posts);
+            return new Request(LIKE_ROUTE, "POST", "/posts/like/" + postId, likeBody(random, users));
+        });
+        mix.add("GET /comments/post/{postId}", 20, random -> get("GET /comments/post/{postId}",
+                "/comments/post/" + (1 + random.nextInt(posts)) + "?page=1&size=10"));
+        mix.add("GET /users/lookup/{username}", 15, random -> get("GET /users/lookup/{username}",
+                "/users/lookup/user" + random.nextInt(users)));
+        if (username != null) {
+            mix.add(LOGIN_ROUTE, 5, random -> login(username, password));
+        }
+        return mix;
+    }
+
+    /**
+     * Builds the mix from a traffic recording. Request bodies are not recorded, so likes get a random user id and
+     * logins the given credentials; other routes with a body are replayed with an empty JSON object.
+     */
+    static TrafficMix fromRecording(List<TrafficRecorder.Entry> recording, int users, String username,
+            String password) {
+        Map<String, List<TrafficRecorder.Entry>> byRoute = new LinkedHashMap<>();
+        for (TrafficRecorder.Entry entry : recording) {
+            if (!LOGIN_ROUTE.equals(entry.route()) || username != null) {
+                byRoute.computeIfAbsent(entry.route(), k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        TrafficMix mix = new TrafficMix();
+        byRoute.forEach((route, entries) -> mix.add(route, entries.size(),
+                random -> replay(entries.get(random.nextInt(entries.size())), random, users, username, password)));
+        return mix;
+    }
+
+    /**
+     * Turns one recorded request back into a request to send, filling in the body it needs.
+     */
+    static Request replay(TrafficRecorder.Entry entry, Random random, int users, String username, String password) {
+        if (LOGIN_ROUTE.equals(entry.route())) {
+            return login(username, password);
+        }
+        String body = null;
+        if (LIKE_ROUTE.equals(entry.route())) {
+            body = likeBody(random, users);
+        } else if (!"GET".equals(entry.method()) && !"DELETE".equals(entry.method())) {
+            body = "{}";
+        }
+        return new Request(entry.route(), entry.method(), entry.path(), body);
+    }
+
+    Request next(Random random) {
+        double point = random.nextDouble() * totalWeight;
+        for (int i = 0; i < cumulativeWeights.size(); i++) {
+            if (point < cumulativeWeights.get(i)) {
+                return generators.get(i).apply(random);
+            }
+        }
+        return generators.get(generators.size() - 1).apply(random);
+    }
+
+    List<String> routes() {
+        return routes;
+    }
+
+    private void add(String route, double weight, Function<Random, Request> generator) {
+        totalWeight += weight;
+        routes.add(route);
+        generators.add(generator);
+        cumulativeWeights.add(totalWeight);
+    }
+
+    private static Request get(String route, String path) {
+        return new Request(route, "GET", path, null);
+    }
+
+    static Request login(String username, String password) {
+        String body = "{\"credentials\":{\"username\":\"" + escape(username) + "\",\"password\":\"" + escape(password)
+                + "\"}}";
+        return new Request(LOGIN_ROUTE, "POST", "/auth/login", body);
+    }
+
+    private static String likeBody(Random random, int users) {
+        return "{\"userId\":\"" + (1 + random.nextInt(users)) + "\"}";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,87 @@
+package com.twizzle.server.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.twizzle.server.benchmarks.BenchmarkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CacheManager} lookups: a raw cache hit, and a cached {@link DBService#executeQuery} read, which adds the
+ * request signature and the loading-cache lookup in front of the (in-memory) executor. After setup every
+ * {@code keys} key is cached, so both benchmarks measure the hit path only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheManagerBenchmark {
+
+    @Param({"100", "10000"})
+    public int keys;
+
+    private AnnotationConfigApplicationContext context;
+    private Cache<String, Object> cache;
+    private DBService dbService;
+    private String[] cacheKeys;
+    private List<Map<String, Object>> queries;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        // Sized and timed so that nothing is evicted or expires during a run.
+        context = BenchmarkContext.start(Map.of("app.database.memory.seed-posts", keys,
+                "app.cache.specs.benchmark.maximum-size", 2 * keys, "app.cache.specs.benchmark.ttl", "1h",
+                "app.cache.specs.db-queries.maximum-size", 2 * keys, "app.cache.specs.db-queries.ttl", "1h"));
+        cache = context.getBean(CacheManager.class).getCache("benchmark");
+        dbService = context.getBean(DBService.class);
+
+        cacheKeys = new String[keys];
+        queries = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            cacheKeys[i] = "user:" + i;
+            cache.put(cacheKeys[i], i);
+
+            Map<String, Object> query = new HashMap<>();
+            query.put("action", "GET_POST_BY_ID");
+            query.put("postId", String.valueOf(i + 1));
+            queries.add(query);
+            dbService.executeQuery(query);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object cacheHit() {
+        return cache.getIfPresent(cacheKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> cachedDbRead() throws SQLException, IOException {
+        return dbService.executeQuery(queries.get(nextIndex()));
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == keys ? 0 : index + 1;
+        return index;
+    }
+}
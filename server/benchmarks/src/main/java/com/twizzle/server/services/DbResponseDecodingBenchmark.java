@@ -0,0 +1,68 @@
+package com.twizzle.server.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.env.StandardEnvironment;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of the package's JSON responses ({@code OracleDbActionExecutor.processResultSet}): one post row, and a
+ * cursor of {@code rows} post rows as returned by the paged feed. The rows come from an in-memory
+ * {@link CachedRowSet}, so only the decoding is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DbResponseDecodingBenchmark {
+
+    private static final String POST_JSON = "{\"id\":%d,\"userId\":\"42\",\"authorName\":\"benchmark\","
+            + "\"content\":\"Benchmark post content with a few words in it #java #performance\","
+            + "\"createdAt\":\"2025-01-01T12:00:00\",\"postDate\":\"2025-01-01\",\"postTime\":\"12:00:00\","
+            + "\"hasImage\":false,\"deleted\":false,\"likedUserIds\":[\"1\",\"2\",\"3\"],\"savedUserIds\":[]}";
+
+    @Param({"1", "50"})
+    public int rows;
+
+    private OracleDbActionExecutor executor;
+    private CachedRowSet resultSet;
+
+    @Setup
+    public void setUp() throws SQLException {
+        executor = new OracleDbActionExecutor(null, null, new StandardEnvironment());
+
+        RowSetMetaData metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(1);
+        metaData.setColumnName(1, "response_text");
+        metaData.setColumnType(1, Types.VARCHAR);
+
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        for (int i = 0; i < rows; i++) {
+            resultSet.moveToInsertRow();
+            resultSet.updateString(1, String.format(POST_JSON, i));
+            resultSet.insertRow();
+            resultSet.moveToCurrentRow();
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> decode() throws SQLException {
+        resultSet.beforeFirst();
+        return executor.processResultSet(resultSet);
+    }
+}
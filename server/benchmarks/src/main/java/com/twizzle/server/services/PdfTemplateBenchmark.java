@@ -0,0 +1,83 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.models.Certificate;
+import com.twizzle.server.models.Education;
+import com.twizzle.server.models.Experience;
+import com.twizzle.server.models.Skill;
+import com.twizzle.server.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTML generation for the profile PDF ({@code PdfService.generateHtmlTemplate}) for a fully filled-in profile. The
+ * HTML-to-PDF conversion itself is not included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PdfTemplateBenchmark {
+
+    private PdfService pdfService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        pdfService = new PdfService(null);
+
+        user = new User();
+        user.setId(42L);
+        user.setUsername("benchmark");
+        user.setFullName("Benchmark User");
+        user.setEmail("benchmark@example.com");
+        user.setTitle("Software Engineer");
+        user.setBio("Writes code and measures it.");
+        user.setAbout("Long-form description of the user's background, interests and current work.");
+        user.getLinks().add("https://example.com");
+        user.getLinks().add("https://github.com/benchmark");
+
+        for (int i = 0; i < 10; i++) {
+            Skill skill = new Skill();
+            skill.setSkillName("Skill " + i);
+            user.getSkills().add(skill);
+        }
+        for (int i = 0; i < 5; i++) {
+            Experience experience = new Experience();
+            experience.setCompany("Company " + i);
+            experience.setPosition("Engineer " + i);
+            experience.setLocation("Remote");
+            experience.setDescription("Built and operated services used by many people.");
+            experience.setStartDate(LocalDate.of(2015 + i, 1, 1));
+            experience.setEndDate(i < 4 ? LocalDate.of(2016 + i, 1, 1) : null);
+            user.getExperiences().add(experience);
+        }
+        for (int i = 0; i < 2; i++) {
+            Education education = new Education();
+            education.setInstitution("University " + i);
+            education.setDegree("Degree " + i);
+            education.setFieldOfStudy("Computer Science");
+            education.setStartDate(LocalDate.of(2008 + 4 * i, 9, 1));
+            education.setEndDate(LocalDate.of(2012 + 4 * i, 6, 30));
+            user.getEducation().add(education);
+        }
+        for (int i = 0; i < 3; i++) {
+            Certificate certificate = new Certificate();
+            certificate.setName("Certificate " + i);
+            certificate.setIssuingOrganization("Issuer " + i);
+            certificate.setIssueDate(LocalDate.of(2020 + i, 3, 1));
+            user.getCertificates().add(certificate);
+        }
+    }
+
+    @Benchmark
+    public String generateHtmlTemplate() {
+        return pdfService.generateHtmlTemplate(user);
+    }
+}
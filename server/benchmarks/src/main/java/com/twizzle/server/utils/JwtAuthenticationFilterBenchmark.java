@@ -0,0 +1,70 @@
+package com.twizzle.server.utils;
+
+import com.twizzle.server.benchmarks.BenchmarkContext;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilter} on a protected endpoint with a valid access token (signature check and claims
+ * parsing), and on a public endpoint, which only runs the path matching.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private AnnotationConfigApplicationContext context;
+    private Filter filter;
+    private Cookie tokenCookie;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        String token = context.getBean(JwtTokenUtil.class).generateAccessToken("benchmark", 42L, false);
+        tokenCookie = new Cookie("token", token);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/posts/all");
+        request.setCookies(tokenCookie);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package com.twizzle.server.utils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimitingFilter#doFilter} for requests that are let through: client identification from
+ * {@code X-Forwarded-For}, the bucket lookup among {@code clients} tracked clients and the token consumption. The
+ * limit is high enough that no request is rejected.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitingFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private RateLimitingFilter filter;
+    private MockHttpServletRequest[] requests;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private int next;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        filter = new RateLimitingFilter("benchmark", Integer.MAX_VALUE, 1, "prod", null);
+        requests = new MockHttpServletRequest[clients];
+        for (int i = 0; i < clients; i++) {
+            requests[i] = new MockHttpServletRequest("GET", "/api/v1/posts/all");
+            requests[i].addHeader("X-Forwarded-For", "10.0." + (i >> 8) + "." + (i & 0xff) + ", 172.16.0.1");
+            filter.doFilter(requests[i], response, NO_OP_CHAIN);
+        }
+    }
+
+    @Benchmark
+    public void allowedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = requests[next];
+        next = next + 1 == clients ? 0 : next + 1;
+        filter.doFilter(request, response, NO_OP_CHAIN);
+    }
+}
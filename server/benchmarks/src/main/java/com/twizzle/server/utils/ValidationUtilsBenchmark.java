@@ -0,0 +1,44 @@
+package com.twizzle.server.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link ValidationUtils} checks run on most request bodies, on valid input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationUtilsBenchmark {
+
+    public String username = "  benchmark_user-01 ";
+    public String email = "Benchmark.User@Example.com";
+    public String postId = " 123456 ";
+    public String content = " Benchmark post content with a few words in it #java #performance ";
+
+    @Benchmark
+    public String validateUsername() {
+        return ValidationUtils.validateUsername(username);
+    }
+
+    @Benchmark
+    public String validateEmail() {
+        return ValidationUtils.validateEmail(email);
+    }
+
+    @Benchmark
+    public String validatePostIdString() {
+        return ValidationUtils.validatePostIdString(postId);
+    }
+
+    @Benchmark
+    public String validateContent() {
+        return ValidationUtils.validateContent(content);
+    }
+}
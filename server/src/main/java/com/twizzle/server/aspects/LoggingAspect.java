@@ -1,21 +1,59 @@
 package com.twizzle.server.aspects;
 
+import com.twizzle.server.services.PerformanceMonitoringService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Aspect
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class LoggingAspect {
 
-    @Pointcut("within(com.twizzle.server..*) && " + "!within(com.twizzle.server.utils.JwtAuthenticationFilter) && "
-            + "!within(com.twizzle.server.utils.JwtTokenUtil) && "
+    private final PerformanceMonitoringService performanceMonitoringService;
+    private final Map<Method, String> methodNames = new ConcurrentHashMap<>();
+
+    @Value("${tracing.aspect.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.aspect.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${tracing.aspect.max-arg-length:200}")
+    private int maxArgLength;
+
+    /**
+     * Controllers and business services. Infrastructure in the services package (tracing, caches, metrics, counters,
+     * invalidation buses, executors) is left out: it runs on every request, often many times, and already measures
+     * itself, so advising it would mostly time the timing.
+     */
+    @Pointcut("(within(com.twizzle.server.services..*) || within(com.twizzle.server.controllers..*) "
+            + "|| @within(com.twizzle.server.aspects.Traced) || @annotation(com.twizzle.server.aspects.Traced)) && "
+            + "!within(com.twizzle.server.services.PerformanceMonitoringService) && "
+            + "!within(com.twizzle.server.services.LoggingService) && "
+            + "!within(com.twizzle.server.services.SecurityJournal) && "
+            + "!within(com.twizzle.server.services.TracingService) && "
+            + "!within(com.twizzle.server.services.CacheManager) && "
+            + "!within(com.twizzle.server.services.MetricsRegistry) && "
+            + "!within(com.twizzle.server.services.EngagementCounterService) && "
+            + "!within(com.twizzle.server.services.PostLikersCache) && "
+            + "!within(com.twizzle.server.services.ResourceVersions) && "
+            + "!within(com.twizzle.server.services.TrafficRecorder) && "
+            + "!within(com.twizzle.server.services.CacheInvalidationBus+) && "
+            + "!within(com.twizzle.server.services.DbActionExecutor+) && "
             + "!execution(* com.twizzle.server.services.*.findAndValidateUser(..)) && "
             + "!execution(* com.twizzle.server.services.*.verifyPassword(..)) && "
             + "!execution(* com.twizzle.server.services.ProfileService.getProfileImage(..)) && "
@@ -27,41 +65,57 @@ public class LoggingAspect {
 
     @Around("applicationPackagePointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        String method = joinPoint.getSignature().toShortString();
-        Object[] args = joinPoint.getArgs();
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+
+        boolean sampled = log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        String method = methodName(joinPoint);
 
-        log.info("Entering {} with arguments: {}", method, formatArguments(args));
-        long startTime = System.currentTimeMillis();
+        if (sampled) {
+            log.debug("Entering {} with arguments: {}", method, formatArguments(joinPoint.getArgs()));
+        }
 
+        long startTime = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-            long duration = System.currentTimeMillis() - startTime;
+            long duration = System.nanoTime() - startTime;
+            performanceMonitoringService.recordMethodTiming(method, duration);
 
-            log.info("Exiting {} with result: {} ({} ms)", method, formatResult(result), duration);
+            if (sampled) {
+                log.debug("Exiting {} with result: {} ({} us)", method, formatObject(result), duration / 1_000);
+            }
             return result;
         } catch (Throwable ex) {
-            long duration = System.currentTimeMillis() - startTime;
-
-            log.error("Exception in {} with cause = {} ({} ms)", method,
-                    ex.getCause() != null ? ex.getCause() : ex.getMessage(), duration);
+            long duration = System.nanoTime() - startTime;
+            performanceMonitoringService.recordMethodTiming(method, duration);
 
+            // Never sampled or level-gated: failures are rare and this costs nothing on the happy path.
+            log.error("Exception in {} with cause = {} ({} us)", method,
+                    ex.getCause() != null ? ex.getCause() : ex.getMessage(), duration / 1_000);
             throw ex;
         }
     }
 
+    private String methodName(ProceedingJoinPoint joinPoint) {
+        if (joinPoint.getSignature() instanceof MethodSignature signature) {
+            return methodNames.computeIfAbsent(signature.getMethod(), m -> signature.toShortString());
+        }
+        return joinPoint.getSignature().toShortString();
+    }
+
     private String formatArguments(Object[] args) {
         if (args == null)
             return "null";
 
-        Object[] formattedArgs = new Object[args.length];
+        StringBuilder builder = new StringBuilder("[");
         for (int i = 0; i < args.length; i++) {
-            formattedArgs[i] = formatObject(args[i]);
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(formatObject(args[i]));
         }
-        return Arrays.toString(formattedArgs);
-    }
-
-    private String formatResult(Object result) {
-        return formatObject(result);
+        return builder.append(']').toString();
     }
 
     private String formatObject(Object obj) {
@@ -72,6 +126,22 @@ public class LoggingAspect {
             return String.format("<byte array of length %d>", byteArray.length);
         }
 
-        return obj.toString();
+        if (obj instanceof Collection<?> collection) {
+            return String.format("<%s of size %d>", obj.getClass().getSimpleName(), collection.size());
+        }
+
+        if (obj instanceof Map<?, ?> map) {
+            return String.format("<%s of size %d>", obj.getClass().getSimpleName(), map.size());
+        }
+
+        if (obj instanceof CharSequence || obj instanceof Number || obj instanceof Boolean || obj instanceof Enum) {
+            return truncate(obj.toString());
+        }
+
+        return "<" + obj.getClass().getSimpleName() + ">";
+    }
+
+    private String truncate(String value) {
+        return value.length() > maxArgLength ? value.substring(0, maxArgLength) + "..." : value;
     }
 }
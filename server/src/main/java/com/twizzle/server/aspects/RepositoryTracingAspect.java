@@ -0,0 +1,37 @@
+package com.twizzle.server.aspects;
+
+import com.twizzle.server.services.TracingService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryTracingAspect {
+
+    private final TracingService tracingService;
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (TracingService.Scope scope = tracingService.startSpan(spanName(joinPoint), "REPOSITORY")) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable ex) {
+                scope.error(ex);
+                throw ex;
+            }
+        }
+    }
+
+    private String spanName(ProceedingJoinPoint joinPoint) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        String repository = interfaces.length > 0
+                ? interfaces[0].getSimpleName()
+                : joinPoint.getSignature().getDeclaringType().getSimpleName();
+        return repository + "." + joinPoint.getSignature().getName();
+    }
+}
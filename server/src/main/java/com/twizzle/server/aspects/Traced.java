@@ -0,0 +1,15 @@
+package com.twizzle.server.aspects;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a bean (or a single method) outside the services and controllers packages into {@link LoggingAspect} timing
+ * and sampled call logging.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Traced {
+}
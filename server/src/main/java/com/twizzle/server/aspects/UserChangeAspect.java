@@ -0,0 +1,41 @@
+package com.twizzle.server.aspects;
+
+import com.twizzle.server.models.User;
+import com.twizzle.server.models.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a {@link UserChangedEvent} for every user written through {@code UserRepository}. Hooking the repository
+ * rather than a JPA {@code @PostUpdate} callback also catches changes that only touch element collections (followers,
+ * blocked users, ...), which Hibernate does not report as an update of the owning entity.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class UserChangeAspect {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @AfterReturning("this(com.twizzle.server.repositories.UserRepository) && "
+            + "(execution(* save*(..)) || execution(* delete*(..)))")
+    public void publishUserChange(JoinPoint joinPoint) {
+        for (Object arg : joinPoint.getArgs()) {
+            publish(arg);
+        }
+    }
+
+    private void publish(Object arg) {
+        if (arg instanceof User user && user.getId() != null) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+        } else if (arg instanceof Long userId) {
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
+        } else if (arg instanceof Iterable<?> items) {
+            items.forEach(this::publish);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.twizzle.server.config;
 
 import com.twizzle.server.services.LoggingService;
+import com.twizzle.server.services.TracingService;
+import com.twizzle.server.utils.MetricsSource;
 import com.twizzle.server.utils.RateLimitingFilter;
+import com.twizzle.server.utils.TracingClientInterceptor;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -14,22 +17,25 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.util.List;
 
 @Configuration
 public class AppConfig {
 
     private final LoggingService loggingService;
+    private final TracingService tracingService;
 
-    public AppConfig(LoggingService loggingService) {
+    public AppConfig(LoggingService loggingService, TracingService tracingService) {
         this.loggingService = loggingService;
+        this.tracingService = tracingService;
     }
 
     @Bean
     public FilterRegistrationBean<RateLimitingFilter> authRateLimitingFilter() {
         FilterRegistrationBean<RateLimitingFilter> registrationBean = new FilterRegistrationBean<>();
 
-        RateLimitingFilter rateLimitingFilter = new RateLimitingFilter(authRateLimit, authRateDuration, activeProfile,
-                loggingService);
+        RateLimitingFilter rateLimitingFilter = new RateLimitingFilter("auth", authRateLimit, authRateDuration,
+                activeProfile, loggingService);
 
         registrationBean.setFilter(rateLimitingFilter);
 
@@ -43,8 +49,8 @@ public class AppConfig {
     public FilterRegistrationBean<RateLimitingFilter> generalRateLimitingFilter() {
         FilterRegistrationBean<RateLimitingFilter> registrationBean = new FilterRegistrationBean<>();
 
-        RateLimitingFilter rateLimitingFilter = new RateLimitingFilter(generalRateLimit, generalRateDuration,
-                activeProfile, loggingService) {
+        RateLimitingFilter rateLimitingFilter = new RateLimitingFilter("general", generalRateLimit,
+                generalRateDuration, activeProfile, loggingService) {
             @Override
             public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
                     throws IOException, ServletException {
@@ -71,9 +77,18 @@ public class AppConfig {
         return registrationBean;
     }
 
+    @Bean
+    public MetricsSource rateLimitMetrics() {
+        List<RateLimitingFilter> filters = List.of(authRateLimitingFilter().getFilter(),
+                generalRateLimitingFilter().getFilter());
+        return writer -> RateLimitingFilter.writeMetrics(writer, filters);
+    }
+
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new TracingClientInterceptor(tracingService));
+        return restTemplate;
     }
 
     @Value("${rate.limit.auth.requests}")
@@ -1,26 +1,173 @@
 package com.twizzle.server.config;
 
+import com.twizzle.server.utils.BulkheadExecutor;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import com.twizzle.server.utils.TraceContext;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Executors for {@code @Async} work and one bulkhead pool per workload class, each sized from
+ * {@code app.executors.<name>.*} (see {@link ExecutorSpec}) so that, say, a slow model API cannot occupy the threads
+ * that run post-login side effects. With {@code spring.threads.virtual.enabled=true} (requires a Java 21+ runtime)
+ * Spring Boot already moves Tomcat request handling and {@code @Scheduled} jobs onto virtual threads; this class then
+ * swaps the default pool for a virtual-thread executor so async tasks follow suit. The bulkheads stay bounded
+ * platform pools in both modes, since bounding is their purpose.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    private final Environment environment;
+
+    public AsyncConfig(Environment environment) {
+        this.environment = environment;
+    }
+
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("async-");
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public BulkheadExecutor taskExecutor() {
+        return bulkhead("async", ExecutorSpec.of(5, 10, 100, ExecutorSpec.RejectionPolicy.ABORT));
+    }
+
+    /**
+     * Post-login bookkeeping (last-login update, new-IP security events). Overflow runs on the login thread rather
+     * than dropping the update.
+     */
+    @Bean
+    public BulkheadExecutor authExecutor() {
+        return bulkhead("auth", ExecutorSpec.of(2, 4, 500, ExecutorSpec.RejectionPolicy.CALLER_RUNS));
+    }
+
+    /**
+     * Calls to the model API. The call timeout covers the RestTemplate connect plus read timeouts.
+     */
+    @Bean
+    public BulkheadExecutor outboundHttpExecutor() {
+        ExecutorSpec defaults = ExecutorSpec.of(4, 16, 32, ExecutorSpec.RejectionPolicy.ABORT);
+        defaults.setCallTimeout(Duration.ofSeconds(45));
+        return bulkhead("outbound-http", defaults);
+    }
+
+    /**
+     * PDF rendering, which is CPU- and memory-heavy; a handful at a time is plenty.
+     */
+    @Bean
+    public BulkheadExecutor reportsExecutor() {
+        return bulkhead("reports", ExecutorSpec.of(1, 2, 10, ExecutorSpec.RejectionPolicy.ABORT));
+    }
+
+    /**
+     * Background reloads of refresh-after-write caches, plus Caffeine's own maintenance, instead of the common
+     * fork-join pool shared with everything else in the JVM. Overflow runs on the thread that triggered it, which is
+     * what an unbounded pool would cost anyway, rather than dropping a refresh Caffeine waits on.
+     */
+    @Bean
+    public BulkheadExecutor cacheRefreshExecutor() {
+        return bulkhead("cache-refresh", ExecutorSpec.of(2, 4, 1000, ExecutorSpec.RejectionPolicy.CALLER_RUNS));
+    }
+
+    private BulkheadExecutor bulkhead(String name, ExecutorSpec defaults) {
+        ExecutorSpec spec = Binder.get(environment).bind("app.executors." + name, Bindable.ofInstance(defaults))
+                .orElse(defaults);
+
+        BulkheadExecutor executor = new BulkheadExecutor(name);
+        executor.setCorePoolSize(spec.getCoreSize());
+        executor.setMaxPoolSize(Math.max(spec.getCoreSize(), spec.getMaxSize()));
+        executor.setQueueCapacity(spec.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) spec.getKeepAlive().toSeconds());
+        executor.setRejectedExecutionHandler(spec.getRejectionPolicy().handler());
+        executor.setCallTimeout(spec.getCallTimeout());
+        executor.setTaskDecorator(TraceContext::wrap);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Virtual threads are cheap, so the thread pool disappears; the concurrency limit still bounds how much async work
+     * can pile up behind the database.
+     */
+    @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualTaskExecutor(
+            @Value("${app.async.virtual.concurrency-limit:200}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskDecorator(TraceContext::wrap);
+        executor.setTaskTerminationTimeout(60_000);
+        return executor;
+    }
+
+    @Bean
+    public MetricsSource executorMetrics(ListableBeanFactory beanFactory) {
+        return writer -> writeExecutorMetrics(writer, beanFactory.getBeansOfType(ThreadPoolTaskExecutor.class));
+    }
+
+    private static void writeExecutorMetrics(MetricsWriter writer, Map<String, ThreadPoolTaskExecutor> executors)
+            throws IOException {
+        writer.gauge("twizzle_executor_active_threads", "Threads currently running tasks");
+        for (Map.Entry<String, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            writer.sample("twizzle_executor_active_threads", entry.getValue().getActiveCount(), "executor",
+                    entry.getKey());
+        }
+
+        writer.gauge("twizzle_executor_pool_size", "Threads currently in the pool");
+        for (Map.Entry<String, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            writer.sample("twizzle_executor_pool_size", entry.getValue().getPoolSize(), "executor", entry.getKey());
+        }
+
+        writer.gauge("twizzle_executor_queue_depth", "Tasks waiting in the executor queue");
+        for (Map.Entry<String, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            writer.sample("twizzle_executor_queue_depth", entry.getValue().getQueueSize(), "executor",
+                    entry.getKey());
+        }
+
+        writer.gauge("twizzle_executor_queue_capacity", "Bounded executor queue capacity");
+        for (Map.Entry<String, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            writer.sample("twizzle_executor_queue_capacity", entry.getValue().getQueueCapacity(), "executor",
+                    entry.getKey());
+        }
+
+        writer.counter("twizzle_executor_completed_tasks", "Tasks completed since start");
+        for (Map.Entry<String, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            ThreadPoolExecutor pool = entry.getValue().getThreadPoolExecutor();
+            writer.total("twizzle_executor_completed_tasks", pool.getCompletedTaskCount(), "executor",
+                    entry.getKey());
+        }
+
+        writer.counter("twizzle_executor_rejected_tasks", "Tasks refused by a full pool, handled per its policy");
+        for (Map.Entry<String, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            if (entry.getValue() instanceof BulkheadExecutor bulkhead) {
+                writer.total("twizzle_executor_rejected_tasks", bulkhead.getRejected().sum(), "executor",
+                        entry.getKey());
+            }
+        }
+
+        writer.counter("twizzle_executor_call_timeouts", "Bulkhead calls abandoned after the call timeout");
+        for (Map.Entry<String, ThreadPoolTaskExecutor> entry : executors.entrySet()) {
+            if (entry.getValue() instanceof BulkheadExecutor bulkhead) {
+                writer.total("twizzle_executor_call_timeouts", bulkhead.getTimedOut().sum(), "executor",
+                        entry.getKey());
+            }
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package com.twizzle.server.config;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Declarative settings for one named cache, bound from {@code app.cache.specs.<name>.*}, e.g.
+ *
+ * <pre>
+ * app.cache.specs.users-by-id.ttl=5m
+ * app.cache.specs.users-by-id.weigher=size
+ * app.cache.specs.users-by-id.maximum-weight=16777216
+ * </pre>
+ *
+ * When a weigher other than {@link Weigher#ENTRIES} is set, {@code maximumWeight} bounds the cache instead of
+ * {@code maximumSize}. A non-zero {@code jitter} (fraction of the TTL, e.g. {@code 0.2}) shortens each entry's
+ * lifetime by a random amount so that entries written together do not all expire in the same instant.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheSpec {
+
+    public enum Weigher {
+        /** Every entry weighs 1. */
+        ENTRIES,
+        /** Collections and maps weigh their element count, anything else 1. */
+        ELEMENTS,
+        /**
+         * Approximate retained size in bytes: {@link com.twizzle.server.utils.Weighable#estimatedBytes()} where the
+         * value provides it, otherwise a shallow estimate from its strings, arrays, collections and maps.
+         */
+        SIZE
+    }
+
+    private Duration ttl = Duration.ofSeconds(30);
+    private Duration refreshAfterWrite;
+    private double jitter;
+    private long maximumSize = 500;
+    private long maximumWeight;
+    private Weigher weigher = Weigher.ENTRIES;
+
+    public static CacheSpec of(long ttlSeconds, long maximumSize) {
+        CacheSpec spec = new CacheSpec();
+        spec.setTtl(Duration.ofSeconds(ttlSeconds));
+        spec.setMaximumSize(maximumSize);
+        return spec;
+    }
+
+    public boolean isWeighted() {
+        return weigher != Weigher.ENTRIES && maximumWeight > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ttl=" + ttl + (jitter > 0 ? ", jitter=" + jitter : "")
+                + (refreshAfterWrite != null ? ", refreshAfterWrite=" + refreshAfterWrite : "")
+                + (isWeighted() ? ", weigher=" + weigher + ", maximumWeight=" + maximumWeight
+                        : ", maximumSize=" + maximumSize);
+    }
+}
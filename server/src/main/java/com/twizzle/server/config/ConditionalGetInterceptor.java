@@ -0,0 +1,105 @@
+package com.twizzle.server.config;
+
+import com.twizzle.server.services.ResourceVersions;
+import com.twizzle.server.services.UserService;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conditional GET for the endpoints clients poll. The ETag comes from {@link ResourceVersions} and is known before
+ * the handler runs, so a matching {@code If-None-Match} is answered with 304 without touching the database or
+ * serialising anything. Other requests carry the ETag and {@code Cache-Control: private, no-cache}, so browsers keep
+ * the response but revalidate it on every use.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor, MetricsSource {
+
+    /** Routes this interceptor is registered for in {@link WebConfig}. */
+    static final String[] ROUTES = {"/posts/all", "/community/get/all", "/users/lookup/*"};
+
+    private final ResourceVersions resourceVersions;
+    private final UserService userService;
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String resource = resourceOf(request);
+        if (resource == null) {
+            return true;
+        }
+
+        String etag = resourceVersions.etag(resource);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        modified.increment();
+        return true;
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        writer.counter("twizzle_http_conditional_requests", "Polled GETs by whether the client's copy was current");
+        writer.total("twizzle_http_conditional_requests", notModified.sum(), "result", "not_modified");
+        writer.total("twizzle_http_conditional_requests", modified.sum(), "result", "modified");
+    }
+
+    @SuppressWarnings("unchecked")
+    private String resourceOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if ("/posts/all".equals(pattern)) {
+            return ResourceVersions.POSTS;
+        }
+        if ("/community/get/all".equals(pattern)) {
+            return ResourceVersions.COMMUNITIES;
+        }
+        if ("/users/lookup/{username}".equals(pattern)) {
+            Map<String, String> variables = (Map<String, String>) request
+                    .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            // Only users already cached have a known id; the first lookup goes through and caches it.
+            Long userId = variables != null ? userService.cachedUserId(variables.get("username")) : null;
+            return userId != null ? ResourceVersions.user(userId) : null;
+        }
+        return null;
+    }
+
+    /**
+     * {@code If-None-Match} uses the weak comparison: a list of tags, each possibly {@code W/}-prefixed, or {@code *}.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package com.twizzle.server.config;
+
+import com.twizzle.server.utils.VDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * JPA read/write routing, active with {@code app.database.replica.enabled=true}. Connections are fetched lazily so
+ * that the transaction's read-only flag is known by then: {@code @Transactional(readOnly = true)} work goes to the
+ * replica pool owned by {@link VDataSource}, everything else to the usual {@code spring.datasource} pool. While the
+ * replica is down or lagging, read-only transactions use the primary as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.database.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, VDataSource vDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(new DelegatingDataSource(primaryDataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection replica = vDataSource.getReplicaConnection();
+                return replica != null ? replica : super.getConnection();
+            }
+        });
+        return routing;
+    }
+}
@@ -0,0 +1,66 @@
+package com.twizzle.server.config;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Sizing for one named executor, bound from {@code app.executors.<name>.*}, e.g.
+ *
+ * <pre>
+ * app.executors.outbound-http.max-size=32
+ * app.executors.outbound-http.queue-capacity=64
+ * app.executors.outbound-http.call-timeout=20s
+ * </pre>
+ *
+ * {@code callTimeout} only applies to callers that wait for the result through
+ * {@link com.twizzle.server.utils.BulkheadExecutor#call}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExecutorSpec {
+
+    public enum RejectionPolicy {
+        /** Fail the submission; synchronous callers get a 503. */
+        ABORT,
+        /** Run the task on the submitting thread, which slows the producer down instead of losing work. */
+        CALLER_RUNS,
+        /** Drop the oldest queued task to make room. */
+        DISCARD_OLDEST;
+
+        public RejectedExecutionHandler handler() {
+            return switch (this) {
+                case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+                case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+                case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            };
+        }
+    }
+
+    private int coreSize = 2;
+    private int maxSize = 4;
+    private int queueCapacity = 100;
+    private Duration keepAlive = Duration.ofSeconds(60);
+    private Duration callTimeout = Duration.ofSeconds(30);
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+    public static ExecutorSpec of(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        ExecutorSpec spec = new ExecutorSpec();
+        spec.setCoreSize(coreSize);
+        spec.setMaxSize(maxSize);
+        spec.setQueueCapacity(queueCapacity);
+        spec.setRejectionPolicy(rejectionPolicy);
+        return spec;
+    }
+
+    @Override
+    public String toString() {
+        return "core=" + coreSize + ", max=" + maxSize + ", queue=" + queueCapacity + ", rejection=" + rejectionPolicy
+                + ", callTimeout=" + callTimeout;
+    }
+}
@@ -1,6 +1,7 @@
 package com.twizzle.server.config;
 
 import com.twizzle.server.services.PerformanceMonitoringService;
+import com.twizzle.server.services.TrafficRecorder;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
@@ -8,6 +9,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
@@ -15,12 +19,14 @@ import org.springframework.web.servlet.HandlerInterceptor;
 public class PerformanceInterceptor implements HandlerInterceptor {
 
     private final PerformanceMonitoringService performanceMonitoringService;
+    private final TrafficRecorder trafficRecorder;
     private static final String START_TIME_ATTRIBUTE = "startTime";
+    private static final String UNMATCHED = "UNMATCHED";
 
     @Override
     public boolean preHandle(HttpServletRequest request, @NonNull HttpServletResponse response,
             @NonNull Object handler) {
-        request.setAttribute(START_TIME_ATTRIBUTE, System.currentTimeMillis());
+        request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
         return true;
     }
 
@@ -30,35 +36,25 @@ public class PerformanceInterceptor implements HandlerInterceptor {
 
         Long startTime = (Long) request.getAttribute(START_TIME_ATTRIBUTE);
         if (startTime != null) {
-            long responseTime = System.currentTimeMillis() - startTime;
+            long responseTime = System.nanoTime() - startTime;
             String endpoint = getEndpointPath(request);
 
-            if (response.getStatus() >= 400) {
-                performanceMonitoringService.recordError(endpoint);
-            }
-
-            performanceMonitoringService.recordRequest(endpoint, responseTime);
-
-            log.debug("Request completed: {} {} - {}ms - Status: {}", request.getMethod(), endpoint, responseTime,
-                    response.getStatus());
-        }
-    }
-
-    private String getEndpointPath(HttpServletRequest request) {
-        String method = request.getMethod();
-        String path = request.getRequestURI();
+            performanceMonitoringService.recordRequest(endpoint, responseTime, response.getStatus() >= 400);
+            trafficRecorder.record(request, endpoint, response.getStatus());
 
-        if (path.contains("?")) {
-            path = path.substring(0, path.indexOf("?"));
+            if (log.isDebugEnabled()) {
+                log.debug("Request completed: {} - {}ms - Status: {}", endpoint,
+                        TimeUnit.NANOSECONDS.toMillis(responseTime), response.getStatus());
+            }
         }
-
-        path = normalizePath(path);
-
-        return method + " " + path;
     }
 
-    private String normalizePath(String path) {
-        return path.replaceAll("/\\d+", "/{id}")
-                .replaceAll("/[a-f0-9]{8}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{12}", "/{uuid}");
+    /**
+     * Uses the route template Spring matched (e.g. {@code /users/lookup/{username}}) so that metrics are keyed per
+     * route rather than per concrete URL. Requests that never matched a handler share a single bucket.
+     */
+    static String getEndpointPath(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMATCHED);
     }
 }
@@ -54,7 +54,7 @@ public class SecurityConfig {
             config.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
             config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
             config.setAllowedHeaders(List.of("*"));
-            config.setExposedHeaders(List.of("Authorization", "Content-Type"));
+            config.setExposedHeaders(List.of("Authorization", "Content-Type", "X-Next-Cursor"));
             config.setAllowCredentials(true);
             return config;
         };
@@ -13,6 +13,7 @@ import java.nio.file.Paths;
 public class WebConfig implements WebMvcConfigurer {
 
     private final PerformanceInterceptor performanceInterceptor;
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
@@ -23,5 +24,6 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(performanceInterceptor).addPathPatterns("/**").excludePathPatterns("/monitoring/**");
+        registry.addInterceptor(conditionalGetInterceptor).addPathPatterns(ConditionalGetInterceptor.ROUTES);
     }
 }
@@ -3,6 +3,8 @@ package com.twizzle.server.controllers;
 import com.twizzle.server.exceptions.CustomException;
 import com.twizzle.server.models.Comment;
 import com.twizzle.server.services.DBService;
+import com.twizzle.server.services.EngagementCounterService;
+import com.twizzle.server.utils.PageCursor;
 import com.twizzle.server.utils.ValidationUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,18 +20,24 @@ import java.util.Map;
 @RequestMapping("/comments")
 public class CommentsController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final DBService dbService;
+    private final EngagementCounterService engagementCounters;
 
-    public CommentsController(DBService dbService) {
+    public CommentsController(DBService dbService, EngagementCounterService engagementCounters) {
         this.dbService = dbService;
+        this.engagementCounters = engagementCounters;
     }
 
     @GetMapping("/post/{postId}")
     public ResponseEntity<List<Map<String, Object>>> getCommentsByPostId(@PathVariable String postId,
-            @RequestParam(defaultValue = "1") int page, @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "1") int page, @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
 
         String validatedPostId = ValidationUtils.validatePostIdString(postId);
         ValidationUtils.validatePagination(page, size);
+        PageCursor after = PageCursor.decode(cursor, dbService.supportsKeysetPaging());
 
         try {
             Map<String, Object> request = new HashMap<>();
@@ -37,9 +45,19 @@ public class CommentsController {
             request.put("postId", validatedPostId);
             request.put("page", page);
             request.put("size", size);
+            if (after != null) {
+                after.addTo(request);
+            }
 
             List<Map<String, Object>> result = dbService.executeQuery(request);
 
+            // The body stays a plain list; the cursor for the next page travels in a header.
+            PageCursor next = dbService.supportsKeysetPaging()
+                    ? PageCursor.after(result, size, "commentTimestamp")
+                    : null;
+            if (next != null) {
+                return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next.encode()).body(result);
+            }
             return ResponseEntity.ok(result);
         } catch (SQLException | IOException e) {
             throw new CustomException(500, "Database error: " + e.getMessage());
@@ -49,19 +67,11 @@ public class CommentsController {
     @GetMapping("/{postId}/count")
     public ResponseEntity<Map<String, Object>> getPostCommentsCount(@PathVariable Long postId) {
         try {
-            Map<String, Object> request = new HashMap<>();
-            request.put("action", "GET_POST_COMMENTS_COUNT");
-            request.put("postId", postId);
-
-            List<Map<String, Object>> result = dbService.executeQuery(request);
-
-            if (result.isEmpty()) {
-                throw new CustomException(404, "Post not found");
-            }
-
-            return ResponseEntity.ok(result.get(0));
-
-        } catch (SQLException | IOException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("postId", postId);
+            response.put("commentsCount", engagementCounters.commentsCount(postId));
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
             throw new CustomException(500, "Database error: " + e.getMessage());
         }
     }
@@ -91,6 +101,7 @@ public class CommentsController {
             if (result.isEmpty()) {
                 throw new CustomException(500, "Failed to create comment");
             }
+            engagementCounters.commentAdded(Long.parseLong(validatedPostId));
 
             return ResponseEntity.ok(result.get(0));
         } catch (SQLException | IOException e) {
@@ -101,11 +112,14 @@ public class CommentsController {
     @DeleteMapping("/delete/{postId}/{commentId}")
     public ResponseEntity<Map<String, Object>> deleteComment(@PathVariable String postId,
             @PathVariable String commentId) {
+
+        String validatedPostId = ValidationUtils.validatePostIdString(postId);
+
         try {
             Map<String, Object> request = new HashMap<>();
             request.put("action", "DELETE_COMMENT");
             request.put("commentId", commentId);
-            request.put("postId", postId);
+            request.put("postId", validatedPostId);
 
             List<Map<String, Object>> result = dbService.executeQuery(request);
 
@@ -116,6 +130,8 @@ public class CommentsController {
                 return ResponseEntity.ok(response);
             }
 
+            // Only a returned row confirms a comment was removed; repeated or unknown deletes must not lower the count.
+            engagementCounters.commentRemoved(Long.parseLong(validatedPostId));
             return ResponseEntity.ok(result.get(0));
         } catch (SQLException | IOException e) {
             throw new CustomException(500, "Database error: " + e.getMessage());
@@ -1,12 +1,28 @@
 package com.twizzle.server.controllers;
 
+import com.twizzle.server.exceptions.CustomException;
+import com.twizzle.server.models.SecurityEvent;
+import com.twizzle.server.models.TraceSpan;
+import com.twizzle.server.services.CacheManager;
 import com.twizzle.server.services.DBService;
+import com.twizzle.server.services.LoggingService;
+import com.twizzle.server.services.MetricsRegistry;
 import com.twizzle.server.services.PerformanceMonitoringService;
+import com.twizzle.server.services.SecurityJournal;
+import com.twizzle.server.services.TracingService;
+import com.twizzle.server.services.TrafficRecorder;
+import com.twizzle.server.utils.MetricsWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,6 +35,12 @@ public class MonitoringController {
 
     private final PerformanceMonitoringService performanceMonitoringService;
     private final DBService dbService;
+    private final LoggingService loggingService;
+    private final SecurityJournal securityJournal;
+    private final TracingService tracingService;
+    private final MetricsRegistry metricsRegistry;
+    private final CacheManager cacheManager;
+    private final TrafficRecorder trafficRecorder;
 
     /**
      * Get comprehensive performance statistics
@@ -38,6 +60,15 @@ public class MonitoringController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get per-method timing histograms recorded by the tracing aspect
+     */
+    @GetMapping("/performance/methods")
+    public ResponseEntity<Map<String, Object>> getMethodStats() {
+        Map<String, Object> stats = performanceMonitoringService.getMethodStats();
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * Get database performance statistics
      */
@@ -47,6 +78,91 @@ public class MonitoringController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get log pipeline queue and throughput statistics
+     */
+    @GetMapping("/logging")
+    public ResponseEntity<Map<String, Object>> getLoggingStats() {
+        Map<String, Object> stats = loggingService.getPipelineStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Query the security event journal by time range, user and event type (newest first)
+     */
+    @GetMapping("/security-events")
+    public ResponseEntity<List<SecurityEvent>> getSecurityEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String user, @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 1000) {
+            throw new CustomException(400, "Limit must be between 1 and 1000");
+        }
+
+        List<SecurityEvent> events = securityJournal.query(toEpochMillis(from), toEpochMillis(to), user, type, limit);
+        return ResponseEntity.ok(events);
+    }
+
+    /**
+     * Get security journal segment and pipeline statistics
+     */
+    @GetMapping("/security-events/stats")
+    public ResponseEntity<Map<String, Object>> getSecurityJournalStats() {
+        return ResponseEntity.ok(securityJournal.getStats());
+    }
+
+    /**
+     * Get the most recently finished request traces (newest first)
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<List<Map<String, Object>>> getRecentTraces(@RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 1000) {
+            throw new CustomException(400, "Limit must be between 1 and 1000");
+        }
+        return ResponseEntity.ok(tracingService.getRecentTraces(limit));
+    }
+
+    /**
+     * Get all buffered spans of a single trace in completion order
+     */
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<List<TraceSpan>> getTrace(@PathVariable String traceId) {
+        List<TraceSpan> spans = tracingService.getRecentSpans(traceId, Integer.MAX_VALUE);
+        if (spans.isEmpty()) {
+            throw new CustomException(404, "Trace not found or no longer buffered");
+        }
+        return ResponseEntity.ok(spans);
+    }
+
+    /**
+     * Get the recorded request sample (oldest first), the input of the load generator's replay mode
+     */
+    @GetMapping("/traffic")
+    public ResponseEntity<List<TrafficRecorder.Entry>> getTrafficRecording() {
+        if (!trafficRecorder.isEnabled()) {
+            throw new CustomException(404, "Traffic recording is disabled (app.traffic.recording.enabled)");
+        }
+        return ResponseEntity.ok(trafficRecorder.getRecording());
+    }
+
+    /**
+     * Scrape endpoint: all internal metrics in OpenMetrics text format, streamed to the response
+     */
+    @GetMapping("/metrics")
+    public void getMetrics(HttpServletResponse response) throws IOException {
+        response.setContentType(MetricsWriter.CONTENT_TYPE);
+        metricsRegistry.write(response.getWriter());
+    }
+
+    /**
+     * Get per-cache spec, size, hit rate and eviction statistics
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(cacheManager.getCacheStats());
+    }
+
     /**
      * Get system health status
      */
@@ -96,4 +212,8 @@ public class MonitoringController {
 
         return ResponseEntity.ok(response);
     }
+
+    private Long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+    }
 }
@@ -4,6 +4,10 @@ import com.twizzle.server.exceptions.CustomException;
 import com.twizzle.server.models.Post;
 import com.twizzle.server.models.ScheduledPostRequest;
 import com.twizzle.server.services.DBService;
+import com.twizzle.server.services.EngagementCounterService;
+import com.twizzle.server.services.PostLikersCache;
+import com.twizzle.server.utils.PageCursor;
+import com.twizzle.server.utils.ValidationUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +20,7 @@ import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,9 +29,11 @@ import java.util.Map;
 public class PostController {
 
     private final DBService dbService;
+    private final EngagementCounterService engagementCounters;
 
-    public PostController(DBService dbService) {
+    public PostController(DBService dbService, EngagementCounterService engagementCounters) {
         this.dbService = dbService;
+        this.engagementCounters = engagementCounters;
     }
 
     @GetMapping("/{postId}")
@@ -71,25 +78,35 @@ public class PostController {
             throw new CustomException(400, "Post ID is required");
         }
 
-        Map<String, Object> params = new HashMap<>();
-        params.put("postId", postId);
-        return querySingleResult("GET_POST_LIKES_COUNT", params, "Post not found");
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("postId", postId);
+            response.put("likesCount", engagementCounters.likesCount(postId));
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            throw new CustomException(500, "Database error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<Map<String, Object>> listUserPosts(@PathVariable String userId,
-            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) String viewerId) {
+        PageCursor after = PageCursor.decode(cursor, dbService.supportsKeysetPaging());
         try {
             Map<String, Object> request = new HashMap<>();
             request.put("action", "GET_USER_POSTS");
             request.put("userId", userId);
             request.put("page", page);
             request.put("size", size);
+            if (after != null) {
+                after.addTo(request);
+            }
 
             List<Map<String, Object>> result = dbService.executeQuery(request);
 
             if (!result.isEmpty()) {
-                return ResponseEntity.ok(result.get(0));
+                return ResponseEntity.ok(withLikedByViewer(withNextCursor(result.get(0), size, "createdAt"), viewerId));
             } else {
                 return ResponseEntity
                         .ok(Map.of("content", List.of(), "totalElements", 0, "totalPages", 0, "currentPage", page,
@@ -102,23 +119,33 @@ public class PostController {
 
     @GetMapping("/all")
     public ResponseEntity<Map<String, Object>> getAllPostsPaged(@RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String viewerId) {
+        PageCursor after = PageCursor.decode(cursor, dbService.supportsKeysetPaging());
         Map<String, Object> request = new HashMap<>();
         request.put("action", "GET_ALL_POSTS_PAGED");
         request.put("page", page);
         request.put("size", size);
+        if (after != null) {
+            after.addTo(request);
+        }
 
-        return handlePagedQuery(request, page, size);
+        ResponseEntity<Map<String, Object>> response = handlePagedQuery(request, page, size);
+        return ResponseEntity.ok(withLikedByViewer(withNextCursor(response.getBody(), size, "createdAt"), viewerId));
     }
 
     @GetMapping("/scheduled")
     public ResponseEntity<Map<String, Object>> getAllScheduledPostsPaged(@RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size, @RequestParam(required = false) String cursor) {
+        PageCursor after = PageCursor.decode(cursor, dbService.supportsKeysetPaging());
         try {
             Map<String, Object> request = new HashMap<>();
             request.put("action", "GET_ALL_SCHEDULED_POSTS_PAGED");
             request.put("page", page);
             request.put("size", size);
+            if (after != null) {
+                after.addTo(request);
+            }
 
             List<Map<String, Object>> result = dbService.executeQuery(request);
 
@@ -127,7 +154,7 @@ public class PostController {
                 return ResponseEntity.ok(response);
             }
 
-            return ResponseEntity.ok(result.get(0));
+            return ResponseEntity.ok(withNextCursor(result.get(0), size, "scheduledFor"));
         } catch (SQLException | IOException e) {
             throw new CustomException(500, "Database error: " + e.getMessage());
         }
@@ -253,14 +280,19 @@ public class PostController {
     @PostMapping("/like/{postId}")
     public ResponseEntity<Map<String, Object>> likePost(@PathVariable Long postId,
             @RequestBody Map<String, Object> requestBody) {
-        String userId = extractUserId(requestBody.get("userId"));
-
-        Map<String, Object> request = new HashMap<>();
-        request.put("action", "LIKE_POST");
-        request.put("postId", postId);
-        request.put("userId", userId);
+        // Numeric ids only: the id is kept in the like bitmaps and written to the write-behind journal.
+        String userId = ValidationUtils.validateUserIdString(extractUserId(requestBody.get("userId")));
+        // Without "liked" the request toggles, as before; with it, repeating the request changes nothing.
+        Object liked = requestBody.get("liked");
+        if (liked != null && !(liked instanceof Boolean)) {
+            throw new CustomException(400, "liked must be true or false");
+        }
 
-        return handleSingleResultQuery(request);
+        try {
+            return ResponseEntity.ok(engagementCounters.setLike(postId, userId, (Boolean) liked));
+        } catch (SQLException | IOException e) {
+            throw new CustomException(500, "Database error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/liked/{userId}/{postId}")
@@ -272,10 +304,20 @@ public class PostController {
             request.put("postId", postId);
             request.put("userId", userId);
 
-            List<Map<String, Object>> result = dbService.executeQuery(request);
+            Map<String, Object> likeDetails;
+            Boolean hasLiked = engagementCounters.hasLiked(postId, String.valueOf(userId));
+            if (hasLiked != null) {
+                // Known in memory, including likes not flushed yet, so the user sees their own like.
+                likeDetails = new HashMap<>();
+                likeDetails.put("postId", postId);
+                likeDetails.put("userId", userId);
+                likeDetails.put("hasLiked", hasLiked);
+            } else {
+                likeDetails = dbService.executeQuery(request).get(0);
+            }
 
             Map<String, Object> response = new HashMap<>();
-            response.put("likeDetails", result.get(0));
+            response.put("likeDetails", likeDetails);
 
             return ResponseEntity.ok(response);
         } catch (SQLException | IOException e) {
@@ -339,6 +381,53 @@ public class PostController {
         }
     }
 
+    /**
+     * Copy of a page with {@code nextCursor}, the token for the page that follows ({@code null} after the last page).
+     * The page is returned unchanged when the backend cannot seek.
+     */
+    private Map<String, Object> withNextCursor(Map<String, Object> page, int size, String timestampField) {
+        if (!dbService.supportsKeysetPaging()) {
+            return page;
+        }
+        PageCursor next = page.get("content") instanceof List<?> content && !Boolean.FALSE.equals(page.get("hasNext"))
+                ? PageCursor.after(content, size, timestampField)
+                : null;
+        Map<String, Object> copy = new LinkedHashMap<>(page);
+        copy.put("nextCursor", next != null ? next.encode() : null);
+        return copy;
+    }
+
+    /**
+     * Copy of a page of posts where each post carries {@code likedByViewer}, answered from the liker bitmaps rather
+     * than one like check per post. The page itself may be a cached result and is not modified.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> withLikedByViewer(Map<String, Object> page, String viewerId) {
+        if (viewerId == null || viewerId.isBlank() || !(page.get("content") instanceof List<?> content)) {
+            return page;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object row : content) {
+            if (row instanceof Map<?, ?> map) {
+                rows.add((Map<String, Object>) map);
+            }
+        }
+        Map<Long, Boolean> likedBy = engagementCounters.likedBy(viewerId.trim(), rows);
+
+        List<Map<String, Object>> annotated = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> copy = new LinkedHashMap<>(row);
+            Boolean liked = likedBy.get(PostLikersCache.postIdOf(row));
+            if (liked != null) {
+                copy.put("likedByViewer", liked);
+            }
+            annotated.add(copy);
+        }
+        Map<String, Object> copy = new LinkedHashMap<>(page);
+        copy.put("content", annotated);
+        return copy;
+    }
+
     private String extractUserId(Object userIdObj) {
         if (userIdObj == null || userIdObj.toString().trim().isEmpty()) {
             throw new CustomException(400, "User ID is required");
@@ -0,0 +1,15 @@
+package com.twizzle.server.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SecurityEvent {
+
+    private long timestamp;
+    private String eventType;
+    private String username;
+    private String sessionId;
+    private String details;
+}
@@ -0,0 +1,34 @@
+package com.twizzle.server.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TraceSpan {
+
+    private String traceId;
+    private String spanId;
+    private String parentSpanId;
+    private String name;
+    private String kind;
+    private String thread;
+    private long startTime;
+    private long durationMicros;
+    private String error;
+
+    @JsonIgnore
+    private long startNanos;
+
+    public TraceSpan(String traceId, String spanId, TraceSpan parent, String name, String kind) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parent != null ? parent.getSpanId() : null;
+        this.name = name;
+        this.kind = kind;
+        this.thread = Thread.currentThread().getName();
+        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+}
@@ -1,11 +1,14 @@
 package com.twizzle.server.models;
 
+import com.twizzle.server.utils.Weighable;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.beans.BeanUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -13,7 +16,7 @@ import java.util.Objects;
 @Getter
 @Entity
 @Table(name = "USERS")
-public class User {
+public class User implements Weighable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
@@ -167,6 +170,51 @@ public class User {
     @Column(name = "IS_VERIFIED")
     private Boolean isVerified = false;
 
+    /**
+     * Detached copy for caches shared across threads: all collections are unmodifiable copies, so a cached instance
+     * can neither be mutated by a caller nor trigger lazy loading outside its session.
+     */
+    public User snapshot() {
+        User copy = new User();
+        BeanUtils.copyProperties(this, copy);
+        copy.reportedPostIds = frozen(reportedPostIds);
+        copy.followers = frozen(followers);
+        copy.following = frozen(following);
+        copy.blockedUsers = frozen(blockedUsers);
+        copy.savedPostIds = frozen(savedPostIds);
+        copy.links = frozen(links);
+        copy.experiences = frozen(experiences);
+        copy.education = frozen(education);
+        copy.skills = frozen(skills);
+        copy.certificates = frozen(certificates);
+        return copy;
+    }
+
+    /**
+     * Rough size for the user caches' weigher: the variable-length fields dominate, so only they are counted, with
+     * a flat allowance per profile entry.
+     */
+    @Override
+    public long estimatedBytes() {
+        long bytes = 512 + (profileImageData != null ? profileImageData.length : 0);
+        for (String text : new String[] {username, password, fullName, email, bio, title, about, ipAddress,
+                lastLoginIp, profileImageFilename, profileImageContentType, stripeCustomerId}) {
+            bytes += text != null ? 2L * text.length() : 0;
+        }
+        bytes += 24L * (count(followers) + count(following) + count(blockedUsers));
+        bytes += 64L * (count(reportedPostIds) + count(savedPostIds) + count(links));
+        bytes += 256L * (count(experiences) + count(education) + count(skills) + count(certificates));
+        return bytes;
+    }
+
+    private static int count(List<?> list) {
+        return list != null ? list.size() : 0;
+    }
+
+    private static <T> List<T> frozen(List<T> list) {
+        return list == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
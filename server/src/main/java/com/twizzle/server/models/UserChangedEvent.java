@@ -0,0 +1,15 @@
+package com.twizzle.server.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a user row or one of its owned collections is written, so that every cache derived from that
+ * user can be invalidated.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private Long userId;
+}
@@ -0,0 +1,269 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.utils.BatchingEventQueue;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Batching, framing and sequencing shared by all invalidation transports. Invalidations are queued and sent in
+ * batches from one thread; every message carries the sender's node id and a per-sender sequence number. A receiver
+ * that sees a sequence jump knows it missed messages and clears all its caches instead of serving stale entries.
+ *
+ * <p>
+ * Every {@code app.cache.invalidation.heartbeat-interval-ms} each node also sends a heartbeat carrying the last
+ * sequence it used, so that losing a node's final message before a quiet spell is noticed too. Peers not heard from
+ * for {@code app.cache.invalidation.peer-timeout-ms} are forgotten; one that turns up again with messages already
+ * behind it counts as a gap, as does any unknown peer once the node has been up long enough to have heard them all.
+ *
+ * <p>
+ * Message layout: magic, node id, sequence, entry count, then per entry the cache name, a key type tag and the key. A
+ * heartbeat is a message with no entries.
+ */
+@Slf4j
+public abstract class AbstractCacheInvalidationBus implements CacheInvalidationBus, MetricsSource {
+
+    private static final int MAGIC = 0x54434931;
+    private static final int MAX_MESSAGE_BYTES = 1200;
+    private static final byte KEY_ALL = 0;
+    private static final byte KEY_LONG = 1;
+    private static final byte KEY_STRING = 2;
+    private static final byte KEY_INT = 3;
+
+    private final long nodeId = ThreadLocalRandom.current().nextLong();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Long, Peer> peers = new ConcurrentHashMap<>();
+    private final AtomicBoolean lostOutbound = new AtomicBoolean();
+    private final BatchingEventQueue<Invalidation> outbound;
+    /** Guards {@code sequence} between the batch sender and the heartbeat. */
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final long startedAtMillis = System.currentTimeMillis();
+    private long sequence;
+
+    @Value("${app.cache.invalidation.heartbeat-interval-ms:5000}")
+    private long heartbeatIntervalMs = 5000;
+
+    @Value("${app.cache.invalidation.peer-timeout-ms:60000}")
+    private long peerTimeoutMs = 60000;
+
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder gapsDetected = new LongAdder();
+
+    protected AbstractCacheInvalidationBus(String name, int queueCapacity, int batchSize, long flushIntervalMs) {
+        this.outbound = new BatchingEventQueue<>(name, queueCapacity, batchSize, flushIntervalMs,
+                BatchingEventQueue.OverflowPolicy.BLOCK, 5, this::sendBatch);
+    }
+
+    /**
+     * Hands one encoded message to the transport.
+     */
+    protected abstract void send(byte[] message) throws IOException;
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        if (!outbound.offer(new Invalidation(cacheName, key))) {
+            // Skip a sequence number on the next message so that peers see the loss and resynchronise.
+            lostOutbound.set(true);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @PreDestroy
+    public void close() {
+        outbound.close();
+    }
+
+    /**
+     * Sends this node's last sequence and forgets peers that have gone quiet.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        sendLock.lock();
+        try {
+            if (lostOutbound.getAndSet(false)) {
+                // The lost invalidation never got a message; use up a sequence number so peers see the gap.
+                sequence++;
+            }
+            send(frame(sequence, 0, new byte[0], 0));
+        } catch (IOException e) {
+            log.debug("Could not send cache invalidation heartbeat: {}", e.getMessage());
+        } finally {
+            sendLock.unlock();
+        }
+
+        long cutoff = System.currentTimeMillis() - peerTimeoutMs;
+        peers.entrySet().removeIf(entry -> {
+            if (entry.getValue().lastHeardMillis() >= cutoff) {
+                return false;
+            }
+            log.info("No cache invalidation messages from node {} for {}ms; forgetting it",
+                    Long.toHexString(entry.getKey()), peerTimeoutMs);
+            return true;
+        });
+    }
+
+    /**
+     * Decodes and applies a message received by the transport. Messages sent by this node are ignored.
+     */
+    protected void receive(byte[] data, int length) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, length))) {
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            long sender = in.readLong();
+            if (sender == nodeId) {
+                return;
+            }
+            long seq = in.readLong();
+            int count = in.readInt();
+            if (count > 0) {
+                messagesReceived.increment();
+            }
+
+            // Highest sequence the sender had used before this message; a heartbeat's own sequence was used already.
+            long sentBefore = count > 0 ? seq - 1 : seq;
+            Peer previous = peers.get(sender);
+            // Late or duplicate datagrams are still applied (invalidations are idempotent) but keep the newer sequence.
+            peers.merge(sender, new Peer(seq, System.currentTimeMillis()), (known, update) ->
+                    new Peer(Math.max(known.sequence(), update.sequence()), update.lastHeardMillis()));
+            long missed = previous != null ? sentBefore - previous.sequence() : unknownPeerMissed(sentBefore);
+            if (missed > 0) {
+                gapsDetected.increment();
+                log.warn("Missed {} cache invalidation message(s) from node {}; clearing local caches", missed,
+                        Long.toHexString(sender));
+                listeners.forEach(Listener::onMessagesLost);
+            }
+
+            for (int i = 0; i < count; i++) {
+                String cacheName = in.readUTF();
+                Object key = readKey(in);
+                listeners.forEach(listener -> listener.onInvalidate(cacheName, key));
+            }
+        } catch (IOException e) {
+            log.warn("Discarding malformed cache invalidation message: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Messages an unknown peer sent that this node may have missed. Right after startup every peer is unknown and
+     * nothing cached here predates them, so they only count once all live peers must have been heard from.
+     */
+    private long unknownPeerMissed(long sentBefore) {
+        return System.currentTimeMillis() - startedAtMillis > 2 * heartbeatIntervalMs ? sentBefore : 0;
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        writer.counter("twizzle_cache_invalidation_messages", "Cache invalidation messages by direction");
+        writer.total("twizzle_cache_invalidation_messages", messagesSent.sum(), "direction", "sent");
+        writer.total("twizzle_cache_invalidation_messages", messagesReceived.sum(), "direction", "received");
+
+        writer.counter("twizzle_cache_invalidation_gaps", "Sequence gaps that forced a full local cache clear");
+        writer.total("twizzle_cache_invalidation_gaps", gapsDetected.sum());
+
+        writer.gauge("twizzle_cache_invalidation_peers", "Nodes heard from within the peer timeout");
+        writer.sample("twizzle_cache_invalidation_peers", peers.size());
+    }
+
+    private void sendBatch(List<Invalidation> batch) throws IOException {
+        ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(entries);
+        int count = 0;
+
+        for (Invalidation invalidation : batch) {
+            int mark = entries.size();
+            out.writeUTF(invalidation.cacheName());
+            writeKey(out, invalidation.key());
+            count++;
+
+            if (entries.size() > MAX_MESSAGE_BYTES && count > 1) {
+                // Keep datagrams under a typical MTU: flush everything before this entry and start over with it.
+                byte[] all = entries.toByteArray();
+                sendMessage(all, mark, count - 1);
+                entries.reset();
+                entries.write(all, mark, all.length - mark);
+                count = 1;
+            }
+        }
+        sendMessage(entries.toByteArray(), entries.size(), count);
+    }
+
+    private void sendMessage(byte[] entries, int length, int count) throws IOException {
+        if (count == 0) {
+            return;
+        }
+
+        sendLock.lock();
+        try {
+            sequence += lostOutbound.getAndSet(false) ? 2 : 1;
+            send(frame(sequence, count, entries, length));
+            messagesSent.increment();
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private byte[] frame(long seq, int count, byte[] entries, int length) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream(length + 24);
+        DataOutputStream out = new DataOutputStream(message);
+        out.writeInt(MAGIC);
+        out.writeLong(nodeId);
+        out.writeLong(seq);
+        out.writeInt(count);
+        out.write(entries, 0, length);
+        return message.toByteArray();
+    }
+
+    private static void writeKey(DataOutputStream out, Object key) throws IOException {
+        if (key instanceof Long value) {
+            out.writeByte(KEY_LONG);
+            out.writeLong(value);
+        } else if (key instanceof Integer value) {
+            out.writeByte(KEY_INT);
+            out.writeInt(value);
+        } else if (key instanceof String value) {
+            out.writeByte(KEY_STRING);
+            out.writeUTF(value);
+        } else {
+            // Unknown key types cannot be reconstructed remotely; invalidating the whole cache is always safe.
+            out.writeByte(KEY_ALL);
+        }
+    }
+
+    private static Object readKey(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case KEY_LONG -> in.readLong();
+            case KEY_INT -> in.readInt();
+            case KEY_STRING -> in.readUTF();
+            default -> null;
+        };
+    }
+
+    private record Invalidation(String cacheName, Object key) {
+    }
+
+    private record Peer(long sequence, long lastHeardMillis) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.twizzle.server.services;
+
+/**
+ * Broadcasts cache-key invalidations to the other server instances so that each node's local caches stay coherent
+ * with writes made elsewhere. Delivery is best-effort; a receiver that detects lost messages is told to drop
+ * everything via {@link Listener#onMessagesLost()}.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Queues an invalidation for the other nodes; {@code key == null} invalidates the whole cache.
+     */
+    void publish(String cacheName, Object key);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        void onInvalidate(String cacheName, Object key);
+
+        void onMessagesLost();
+    }
+}
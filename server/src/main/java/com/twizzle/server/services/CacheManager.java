@@ -1,35 +1,388 @@
 package com.twizzle.server.services;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.twizzle.server.config.CacheSpec;
+import com.twizzle.server.utils.BulkheadExecutor;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import com.twizzle.server.utils.Weighable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
+/**
+ * Owner of all named Caffeine caches. Each cache is built from its {@link CacheSpec}: a spec configured under
+ * {@code app.cache.specs.<name>} wins, then the built-in defaults below, then whatever the first caller asked for.
+ * Invalidations made through {@link #invalidate} and {@link #clearCache} are also broadcast to the other nodes via the
+ * {@link CacheInvalidationBus}, and applied here when they arrive from a peer. Refreshes and cache maintenance run on
+ * the {@code cacheRefreshExecutor} bulkhead.
+ */
 @Service
-public class CacheManager {
+@Slf4j
+public class CacheManager implements MetricsSource {
+
+    /** Weight of a value the size estimate cannot look into. */
+    private static final int OPAQUE_WEIGHT = 1024;
 
     private final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final Map<String, CacheSpec> activeSpecs = new ConcurrentHashMap<>();
+    private final Map<String, CacheSpec> configuredSpecs;
+    private final Set<String> mismatchWarned = ConcurrentHashMap.newKeySet();
+    private final ObjectProvider<CacheWarmer> cacheWarmers;
+    private final CacheInvalidationBus invalidationBus;
+    private final BulkheadExecutor refreshExecutor;
+    private final Map<String, List<Consumer<Object>>> invalidationListeners = new ConcurrentHashMap<>();
+
+    @Value("${app.cache.warm-up.enabled:true}")
+    private boolean warmUpEnabled;
+
+    public CacheManager(Environment environment, ObjectProvider<CacheWarmer> cacheWarmers,
+            CacheInvalidationBus invalidationBus, @Qualifier("cacheRefreshExecutor") BulkheadExecutor refreshExecutor) {
+        this.cacheWarmers = cacheWarmers;
+        this.invalidationBus = invalidationBus;
+        this.refreshExecutor = refreshExecutor;
+        this.configuredSpecs = new HashMap<>(defaultSpecs());
+        this.configuredSpecs.putAll(Binder.get(environment)
+                .bind("app.cache.specs", Bindable.mapOf(String.class, CacheSpec.class)).orElse(Map.of()));
+
+        invalidationBus.subscribe(new CacheInvalidationBus.Listener() {
+            @Override
+            public void onInvalidate(String cacheName, Object key) {
+                invalidateLocally(cacheName, key);
+            }
+
+            @Override
+            public void onMessagesLost() {
+                Set<String> names = new HashSet<>(caches.keySet());
+                names.addAll(invalidationListeners.keySet());
+                names.forEach(name -> invalidateLocally(name, null));
+            }
+        });
+    }
 
-    @SuppressWarnings("unchecked")
     public <K, V> Cache<K, V> getCache(String cacheName) {
-        return (Cache<K, V>) caches.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
-                .expireAfterWrite(30, TimeUnit.SECONDS).maximumSize(500).recordStats().build());
+        return getCache(cacheName, new CacheSpec());
     }
 
-    @SuppressWarnings("unchecked")
     public <K, V> Cache<K, V> getCache(String cacheName, long ttlSeconds, long maxSize) {
-        return (Cache<K, V>) caches.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
-                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).maximumSize(maxSize).recordStats().build());
+        return getCache(cacheName, CacheSpec.of(ttlSeconds, maxSize));
+    }
+
+    /**
+     * Returns a self-populating cache: concurrent misses on one key run the loader once, and with refresh-after-write
+     * the stale value keeps being served while a background reload runs. Only the first caller's loader is used.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> LoadingCache<K, V> getLoadingCache(String cacheName, CacheLoader<K, V> loader) {
+        Cache<?, ?> cache = caches.get(cacheName);
+        if (cache instanceof LoadingCache<?, ?> loadingCache) {
+            return (LoadingCache<K, V>) loadingCache;
+        }
+        // A plain cache may already exist if it was touched (e.g. invalidated) before its first read; replace it.
+        return (LoadingCache<K, V>) caches.compute(cacheName, (name, existing) -> existing instanceof LoadingCache<?, ?>
+                ? existing
+                : builder(name, resolveSpec(name, new CacheSpec()), true).build(loader));
+    }
+
+    /**
+     * Evicts {@code key} here and on every other node; {@code key == null} clears the whole cache.
+     */
+    public void invalidate(String cacheName, Object key) {
+        invalidateLocally(cacheName, key);
+        invalidationBus.publish(cacheName, key);
     }
 
     public void clearCache(String cacheName) {
+        invalidate(cacheName, null);
+    }
+
+    /**
+     * Evicts {@code key} on every other node only, for entries this node has just updated in place.
+     */
+    public void invalidatePeers(String cacheName, Object key) {
+        invalidationBus.publish(cacheName, key);
+    }
+
+    /**
+     * Registers a callback run whenever a key of {@code cacheName} is invalidated, locally or by a peer, so that caches
+     * derived from it (keyed differently) can be evicted as well. The key is {@code null} when the whole cache was
+     * cleared.
+     */
+    public void onInvalidate(String cacheName, Consumer<Object> listener) {
+        invalidationListeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void invalidateLocally(String cacheName, Object key) {
         Cache<?, ?> cache = caches.get(cacheName);
         if (cache != null) {
-            cache.invalidateAll();
+            if (key == null) {
+                cache.invalidateAll();
+            } else {
+                cache.asMap().remove(key);
+            }
+        }
+        invalidationListeners.getOrDefault(cacheName, List.of()).forEach(listener -> listener.accept(key));
+    }
+
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        caches.forEach((name, cache) -> {
+            CacheStats cacheStats = cache.stats();
+
+            Map<String, Object> cacheInfo = new HashMap<>();
+            cacheInfo.put("spec", String.valueOf(activeSpecs.get(name)));
+            cacheInfo.put("size", cache.estimatedSize());
+            cache.policy().eviction().map(Policy.Eviction::weightedSize)
+                    .ifPresent(weight -> weight.ifPresent(value -> cacheInfo.put("weightedSize", value)));
+            cacheInfo.put("hitCount", cacheStats.hitCount());
+            cacheInfo.put("missCount", cacheStats.missCount());
+            cacheInfo.put("hitRate", cacheStats.hitRate());
+            cacheInfo.put("evictionCount", cacheStats.evictionCount());
+            cacheInfo.put("evictionWeight", cacheStats.evictionWeight());
+            cacheInfo.put("loadCount", cacheStats.loadCount());
+            cacheInfo.put("averageLoadPenaltyMs", cacheStats.averageLoadPenalty() / 1_000_000.0);
+            stats.put(name, cacheInfo);
+        });
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpEnabled) {
+            return;
+        }
+
+        cacheWarmers.orderedStream().forEach(warmer -> {
+            long start = System.nanoTime();
+            try {
+                warmer.warmCaches();
+                log.info("Cache warm-up by {} finished in {}ms", warmer.getClass().getSimpleName(),
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                log.warn("Cache warm-up by {} failed: {}", warmer.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Cache<K, V> getCache(String cacheName, CacheSpec requested) {
+        Cache<?, ?> cache = caches.get(cacheName);
+        if (cache == null) {
+            cache = caches.computeIfAbsent(cacheName,
+                    name -> builder(name, resolveSpec(name, requested), false).build());
+        } else if (!configuredSpecs.containsKey(cacheName) && !sameSizing(activeSpecs.get(cacheName), requested)
+                && mismatchWarned.add(cacheName)) {
+            log.warn("Cache {} requested with [{}] but already exists with [{}]; configure app.cache.specs.{}",
+                    cacheName, requested, activeSpecs.get(cacheName), cacheName);
+        }
+        return (Cache<K, V>) cache;
+    }
+
+    private CacheSpec resolveSpec(String cacheName, CacheSpec requested) {
+        CacheSpec spec = configuredSpecs.getOrDefault(cacheName, requested);
+        activeSpecs.put(cacheName, spec);
+        log.debug("Creating cache {} with [{}]", cacheName, spec);
+        return spec;
+    }
+
+    private Caffeine<Object, Object> builder(String cacheName, CacheSpec spec, boolean loading) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats().executor(refreshExecutor);
+
+        if (spec.getJitter() > 0) {
+            builder.expireAfter(new JitteredExpiry(spec.getTtl(), spec.getJitter()));
+        } else {
+            builder.expireAfterWrite(spec.getTtl());
+        }
+
+        if (spec.getRefreshAfterWrite() != null) {
+            if (loading) {
+                builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+            } else {
+                log.warn("Ignoring refresh-after-write for cache {}: it is not used as a loading cache", cacheName);
+            }
         }
+
+        if (spec.isWeighted()) {
+            CacheSpec.Weigher weigher = spec.getWeigher();
+            builder.maximumWeight(spec.getMaximumWeight()).weigher((key, value) -> weigh(weigher, value));
+        } else {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        return builder;
+    }
+
+    private static int weigh(CacheSpec.Weigher weigher, Object value) {
+        if (weigher == CacheSpec.Weigher.ELEMENTS) {
+            if (value instanceof Collection<?> collection) {
+                return Math.max(1, collection.size());
+            }
+            if (value instanceof Map<?, ?> map) {
+                return Math.max(1, map.size());
+            }
+            return 1;
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, estimatedBytes(value, 2)));
     }
 
+    /**
+     * Rough retained size of {@code value}, looking {@code depth} levels into collections and maps. It runs on every
+     * put and refresh, so it never serialises or reflects: anything it cannot look into counts as
+     * {@link #OPAQUE_WEIGHT}.
+     */
+    private static long estimatedBytes(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Weighable weighable) {
+            return weighable.estimatedBytes();
+        }
+        if (value instanceof CharSequence text) {
+            return 40 + 2L * text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return 16 + bytes.length;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            return 16;
+        }
+        if (depth > 0 && value instanceof Collection<?> collection) {
+            long bytes = 16;
+            for (Object element : collection) {
+                bytes += 8 + estimatedBytes(element, depth - 1);
+            }
+            return bytes;
+        }
+        if (depth > 0 && value instanceof Map<?, ?> map) {
+            long bytes = 48;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += 32 + estimatedBytes(entry.getKey(), depth - 1) + estimatedBytes(entry.getValue(), depth - 1);
+            }
+            return bytes;
+        }
+        return OPAQUE_WEIGHT;
+    }
+
+    private static boolean sameSizing(CacheSpec active, CacheSpec requested) {
+        return active == null || (active.getTtl().equals(requested.getTtl())
+                && active.getMaximumSize() == requested.getMaximumSize());
+    }
+
+    /**
+     * Defaults for caches whose entries vary widely in size; anything not listed here is entry-counted.
+     */
+    private static Map<String, CacheSpec> defaultSpecs() {
+        Map<String, CacheSpec> defaults = new HashMap<>();
+        // User caches are invalidated on every write (see UserCacheInvalidator), so their TTL only bounds staleness
+        // from writes made outside this application.
+        for (String name : new String[] {"users-by-id", "users-by-username"}) {
+            CacheSpec spec = CacheSpec.of(300, 500);
+            spec.setRefreshAfterWrite(Duration.ofSeconds(60));
+            spec.setJitter(0.1);
+            spec.setWeigher(CacheSpec.Weigher.SIZE);
+            spec.setMaximumWeight(16L * 1024 * 1024);
+            defaults.put(name, spec);
+        }
+
+        defaults.put("usernames-by-id", CacheSpec.of(600, 10_000));
+
+        CacheSpec queries = CacheSpec.of(30, 1000);
+        queries.setRefreshAfterWrite(Duration.ofSeconds(10));
+        queries.setJitter(0.2);
+        defaults.put("db-queries", queries);
+
+        CacheSpec llms = CacheSpec.of(600, 10);
+        llms.setRefreshAfterWrite(Duration.ofMinutes(1));
+        llms.setJitter(0.1);
+        defaults.put("llm-all", llms);
+
+        CacheSpec connections = CacheSpec.of(300, 300);
+        connections.setWeigher(CacheSpec.Weigher.ELEMENTS);
+        connections.setMaximumWeight(50_000);
+        defaults.put("user-connections", connections);
+
+        // Liker bitmaps are kept current by this node's writes and evicted on peers' writes; the TTL only bounds
+        // staleness from writes made outside this application.
+        defaults.put("post-likers", CacheSpec.of(600, 10_000));
+        return defaults;
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        Map<String, CacheStats> stats = new HashMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+
+        writer.counter("twizzle_cache_requests", "Cache lookups by result");
+        for (Map.Entry<String, CacheStats> entry : stats.entrySet()) {
+            writer.total("twizzle_cache_requests", entry.getValue().hitCount(), "cache", entry.getKey(), "result",
+                    "hit");
+            writer.total("twizzle_cache_requests", entry.getValue().missCount(), "cache", entry.getKey(), "result",
+                    "miss");
+        }
+
+        writer.counter("twizzle_cache_evictions", "Entries evicted for size or expiry");
+        for (Map.Entry<String, CacheStats> entry : stats.entrySet()) {
+            writer.total("twizzle_cache_evictions", entry.getValue().evictionCount(), "cache", entry.getKey());
+        }
+
+        writer.counter("twizzle_cache_load_seconds", "Time spent loading missing entries");
+        for (Map.Entry<String, CacheStats> entry : stats.entrySet()) {
+            writer.total("twizzle_cache_load_seconds", entry.getValue().totalLoadTime() / 1e9, "cache",
+                    entry.getKey());
+        }
+
+        writer.gauge("twizzle_cache_size", "Approximate number of entries");
+        for (Map.Entry<String, Cache<?, ?>> entry : caches.entrySet()) {
+            writer.sample("twizzle_cache_size", entry.getValue().estimatedSize(), "cache", entry.getKey());
+        }
+    }
+
+    /**
+     * Expire-after-write with a random per-entry reduction of up to {@code jitter * ttl}, re-drawn on every write or
+     * refresh, so a batch of entries loaded together spreads its expiry instead of missing all at once.
+     */
+    private record JitteredExpiry(Duration ttl, double jitter) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            long ttlNanos = ttl.toNanos();
+            return ttlNanos - (long) (ttlNanos * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
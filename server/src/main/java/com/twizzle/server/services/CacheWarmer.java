@@ -0,0 +1,10 @@
+package com.twizzle.server.services;
+
+/**
+ * Implemented by services that can pre-populate their caches. {@link CacheManager} calls every warmer once the
+ * application is ready so the first requests after a deploy do not all miss.
+ */
+public interface CacheWarmer {
+
+    void warmCaches();
+}
@@ -2,149 +2,154 @@ package com.twizzle.server.services;
 
 import com.twizzle.server.exceptions.CustomException;
 import com.twizzle.server.models.Post;
-import com.twizzle.server.utils.VDataSource;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.twizzle.server.utils.LatencyHistogram;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StopWatch;
 
 import java.io.IOException;
-import java.sql.*;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @Slf4j
-public class DBService {
+public class DBService implements MetricsSource {
 
     private final LoggingService loggingService;
     private final CacheManager cacheManager;
-
-    @Value("${app.database.package.name}")
-    private String postPkgName;
+    private final TracingService tracingService;
+    private final ResourceVersions resourceVersions;
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
-    private final VDataSource vDataSource;
+    private final DbActionExecutor executor;
     private final Map<String, Long> queryPerformanceMetrics = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> actionTimings = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> actionErrors = new ConcurrentHashMap<>();
 
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final long BASE_RETRY_DELAY_MS = 100;
+    private static final String DB_QUERIES_CACHE = "db-queries";
 
     @Value("${db.performance.slow-query-threshold-ms:1000}")
     private long slowQueryThresholdMs;
 
-    public DBService(VDataSource vDataSource, LoggingService loggingService, CacheManager cacheManager) {
-        this.vDataSource = vDataSource;
+    public DBService(DbActionExecutor executor, LoggingService loggingService, CacheManager cacheManager,
+            TracingService tracingService, ResourceVersions resourceVersions) {
+        this.executor = executor;
         this.loggingService = loggingService;
         this.cacheManager = cacheManager;
+        this.tracingService = tracingService;
+        this.resourceVersions = resourceVersions;
     }
 
     public List<Map<String, Object>> executeQuery(Object requestBody)
             throws SQLException, IOException, CustomException {
 
-        String requestSignature = generateRequestSignature(requestBody);
-        var queryCache = cacheManager.<String, List<Map<String, Object>>>getCache("db-queries", 30, 1000);
-        List<Map<String, Object>> cachedResult = queryCache.getIfPresent(requestSignature);
-        if (cachedResult != null) {
-            log.debug("Cache hit for signature: {}", requestSignature);
-            return cachedResult;
+        String action = actionName(requestBody);
+        if (!isCacheableRead(action)) {
+            List<Map<String, Object>> response = executeTimed(action, requestBody);
+            // Any write may change what a cached read returns; drop them all rather than serve stale results.
+            cacheManager.clearCache(DB_QUERIES_CACHE);
+            resourceVersions.changed(ResourceVersions.resourceOf(action));
+            return response;
         }
 
-        StopWatch stopWatch = new StopWatch("DBService.executeQuery");
-        stopWatch.start();
-
-        List<Map<String, Object>> response;
-        String executeQueryCall = "begin ?:=" + postPkgName + ".executeQuery(?); end;";
-
-        int attempt = 0;
-        SQLException lastException = null;
-
-        while (true) {
-            try (Connection conn = getConnectionWithTimeout()) {
-                String jsonRequest = getCachedJsonString(requestBody);
-                Object[] inParameters = new Object[]{jsonRequest};
-
-                log.debug("DB Request - JSON: {} (Attempt: {})", jsonRequest, attempt + 1);
-
-                try (CallableStatement callableStatement = executeCallWithCache(conn, executeQueryCall, inParameters)) {
-                    callableStatement.setQueryTimeout(30);
-
-                    try (ResultSet resultSet = (ResultSet) callableStatement.getObject(1)) {
-                        response = processResultSet(resultSet);
-                        break;
-                    }
-                }
-            } catch (SQLException e) {
-                lastException = e;
-                attempt++;
-
-                if (attempt < MAX_RETRY_ATTEMPTS) {
-                    long delayMs = BASE_RETRY_DELAY_MS * (1L << attempt);
-                    log.warn("Database query failed (attempt {}/{}), retrying in {}ms: {}", attempt, MAX_RETRY_ATTEMPTS,
-                            delayMs, e.getMessage());
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(delayMs);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new CustomException(500, "Query interrupted: " + ie.getMessage());
-                    }
-                } else {
-                    log.error("All database retry attempts failed", e);
-                    throw new CustomException(500,
-                            "Database operation failed after " + MAX_RETRY_ATTEMPTS + " attempts: " + e.getMessage());
-                }
+        LoadingCache<QueryKey, List<Map<String, Object>>> queryCache = cacheManager.getLoadingCache(DB_QUERIES_CACHE,
+                key -> executeTimed(key.action(), key.requestBody()));
+        try {
+            // Concurrent misses for the same request share one load; refresh-after-write reloads hot entries in the
+            // background while the previous result keeps being served.
+            return queryCache.get(new QueryKey(generateRequestSignature(requestBody), action, requestBody));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
             }
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw e;
         }
-
-        if (response.isEmpty() && lastException != null) {
-            throw new CustomException(500, "Database operation failed: " + lastException.getMessage());
-        }
-
-        stopWatch.stop();
-        long executionTime = stopWatch.getTotalTimeMillis();
-        logQueryPerformance(requestSignature, executionTime);
-        queryCache.put(requestSignature, response);
-        log.debug("Cached result for signature: {}", requestSignature);
-
-        return response;
     }
 
-    private CallableStatement executeCallWithCache(Connection conn, String query, Object[] inParameters)
-            throws SQLException {
-        CallableStatement statement = getPreparedCallWithCache(conn, query, inParameters);
-        statement.execute();
-        return statement;
+    /**
+     * Runs a read against the primary database even if a cached result exists, for callers that must not act on a
+     * stale answer: neither the query cache nor a lagging read replica is consulted. The result is not cached either.
+     */
+    public List<Map<String, Object>> executeUncached(Object requestBody) throws IOException, CustomException {
+        return executeTimed(actionName(requestBody), requestBody, true);
     }
 
-    private CallableStatement getPreparedCallWithCache(Connection conn, String query, Object[] inParameters)
-            throws SQLException {
+    private List<Map<String, Object>> executeTimed(String action, Object requestBody)
+            throws IOException, CustomException {
+        return executeTimed(action, requestBody, false);
+    }
 
-        CallableStatement call = conn.prepareCall(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-        call.registerOutParameter(1, Types.REF_CURSOR);
+    private List<Map<String, Object>> executeTimed(String action, Object requestBody, boolean primary)
+            throws IOException, CustomException {
+        long startTime = System.nanoTime();
 
-        try {
-            if (call.isWrapperFor(Class.forName("oracle.jdbc.OracleCallableStatement"))) {
-                log.debug("Using Oracle-specific statement optimizations");
+        List<Map<String, Object>> response;
+        try (TracingService.Scope scope = tracingService.startSpan("db " + action, "DB")) {
+            try {
+                response = primary ? executor.executeOnPrimary(action, requestBody)
+                        : executor.execute(action, requestBody);
+            } catch (IOException | CustomException e) {
+                scope.error(e);
+                actionErrors.computeIfAbsent(action, k -> new LongAdder()).increment();
+                throw e;
             }
-        } catch (ClassNotFoundException e) {
-            log.debug("Oracle driver not available, using standard JDBC");
         }
 
-        if (inParameters != null) {
-            for (int i = 0; i < inParameters.length; i++) {
-                call.setObject(i + 2, inParameters[i]);
+        long executionNanos = System.nanoTime() - startTime;
+        actionTimings.computeIfAbsent(action, k -> new LatencyHistogram()).record(executionNanos);
+        logQueryPerformance(action, TimeUnit.NANOSECONDS.toMillis(executionNanos));
+        return response;
+    }
+
+    /**
+     * Runs one write action for many requests in as few round trips as the backend allows (see
+     * {@link DbActionExecutor#executeBatch}). Cached reads are dropped and the change announced once for the whole
+     * batch, not once per request as {@link #executeQuery} would.
+     */
+    public void executeBatch(String action, List<? extends Map<String, Object>> requests)
+            throws IOException, CustomException {
+        if (requests.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        try (TracingService.Scope scope = tracingService.startSpan("db batch " + action, "DB")) {
+            try {
+                executor.executeBatch(action, requests);
+            } catch (IOException | CustomException e) {
+                scope.error(e);
+                actionErrors.computeIfAbsent(action + "_BATCH", k -> new LongAdder()).increment();
+                throw e;
             }
         }
+        long executionNanos = System.nanoTime() - startTime;
+        actionTimings.computeIfAbsent(action + "_BATCH", k -> new LatencyHistogram()).record(executionNanos);
+        logQueryPerformance(action + "_BATCH", TimeUnit.NANOSECONDS.toMillis(executionNanos));
+
+        cacheManager.clearCache(DB_QUERIES_CACHE);
+        resourceVersions.changed(ResourceVersions.resourceOf(action));
+    }
 
-        return call;
+    /**
+     * Whether listings can be paged with {@link com.twizzle.server.utils.PageCursor cursors} on this backend.
+     */
+    public boolean supportsKeysetPaging() {
+        return executor.supportsKeysetPaging();
     }
 
     @Cacheable(value = "scheduledPosts", key = "#authorId + '_' + #content.hashCode()")
@@ -169,143 +174,60 @@ public class DBService {
         executeQuery(request);
     }
 
-    public List<Map<String, Object>> createPostWithImage(Post post) throws SQLException, IOException {
-        List<Map<String, Object>> response = new ArrayList<>();
-
-        String createPostCall = "begin ?:=" + postPkgName + ".create_post(?, ?, ?, ?, ?, ?); end;";
-
-        try (Connection conn = getConnection()) {
-            try (CallableStatement call = conn.prepareCall(createPostCall)) {
-                call.registerOutParameter(1, Types.REF_CURSOR);
-                call.setString(2, post.getContent());
-                call.setString(3, post.getAuthorId());
-                call.setString(4, post.getAuthorName());
-
-                if (post.getImageData() != null) {
-                    call.setBytes(5, post.getImageData());
-                } else {
-                    call.setNull(5, Types.BLOB);
-                }
-                call.setString(6, post.getImageFilename());
-                call.setString(7, post.getImageContentType());
-
-                call.execute();
-
-                try (ResultSet resultSet = (ResultSet) call.getObject(1)) {
-                    while (resultSet.next()) {
-                        String jsonResponse = resultSet.getString("response_text");
-
-                        if (jsonResponse != null && (jsonResponse.startsWith("Database error")
-                                || jsonResponse.startsWith("Routing error") || jsonResponse.contains("error"))) {
-                            throw new CustomException(500, "Database operation failed: " + jsonResponse);
-                        }
-
-                        try {
-                            Map<String, Object> responseMap = objectMapper.readValue(jsonResponse,
-                                    new TypeReference<>() {
-                                    });
-                            response.add(responseMap);
-                        } catch (Exception e) {
-                            Map<String, Object> rawResponse = new HashMap<>();
-                            rawResponse.put("message", jsonResponse);
-                            response.add(rawResponse);
-                        }
-                    }
-                }
+    public List<Map<String, Object>> createPostWithImage(Post post) throws SQLException {
+        List<Map<String, Object>> response;
+        try (TracingService.Scope scope = tracingService.startSpan("db create_post", "DB")) {
+            try {
+                response = executor.createPostWithImage(post);
+            } catch (SQLException | RuntimeException e) {
+                scope.error(e);
+                throw e;
             }
         }
-
+        cacheManager.clearCache(DB_QUERIES_CACHE);
+        resourceVersions.changed(ResourceVersions.POSTS);
         return response;
     }
 
     public Map<String, Object> getPostImageData(Long postId) throws SQLException {
-        String getImageCall = "begin ?:=" + postPkgName + ".get_post_image(?); end;";
-
-        try (Connection conn = getConnection(); CallableStatement call = conn.prepareCall(getImageCall)) {
-
-            call.registerOutParameter(1, Types.REF_CURSOR);
-            call.setLong(2, postId);
-
-            call.execute();
-
-            try (ResultSet resultSet = (ResultSet) call.getObject(1)) {
-                if (resultSet.next()) {
-                    Map<String, Object> imageData = new HashMap<>();
-                    imageData.put("IMAGE_DATA", resultSet.getBlob("IMAGE_DATA"));
-                    imageData.put("IMAGE_FILENAME", resultSet.getString("IMAGE_FILENAME"));
-                    imageData.put("IMAGE_CONTENT_TYPE", resultSet.getString("IMAGE_CONTENT_TYPE"));
-                    return imageData;
-                }
+        try (TracingService.Scope scope = tracingService.startSpan("db get_post_image", "DB")) {
+            try {
+                return executor.getPostImageData(postId);
+            } catch (SQLException | RuntimeException e) {
+                scope.error(e);
+                throw e;
             }
         }
-        return null;
     }
 
-    private Connection getConnectionWithTimeout() throws SQLException {
-        Connection conn = vDataSource.getConnection();
-
-        conn.setAutoCommit(true);
-        conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
-
-        return conn;
+    private static String actionName(Object requestBody) {
+        if (requestBody instanceof Map<?, ?> map) {
+            Object action = map.get("action");
+            return action != null ? action.toString() : "unknown";
+        }
+        return requestBody.getClass().getSimpleName();
     }
 
-    private Connection getConnection() throws SQLException {
-        return getConnectionWithTimeout();
+    static boolean isCacheableRead(String action) {
+        String upper = action.toUpperCase();
+        return upper.startsWith("GET_") || upper.startsWith("CHECK_");
     }
 
-    private String generateRequestSignature(Object requestBody) {
-        try {
-            if (requestBody instanceof Map<?, ?> map) {
-                String action = String.valueOf(map.get("action"));
-                return action != null ? action : "unknown";
-            }
-            return requestBody.getClass().getSimpleName();
-        } catch (Exception e) {
-            return "signature_error";
+    /**
+     * Canonical form of the whole request (keys sorted) so that two requests share a cache entry only when every
+     * parameter matches.
+     */
+    private String generateRequestSignature(Object requestBody) throws IOException {
+        if (requestBody instanceof Map<?, ?> map) {
+            return objectMapper.writeValueAsString(new TreeMap<>(map));
         }
+        return getCachedJsonString(requestBody);
     }
 
     private String getCachedJsonString(Object requestBody) throws IOException {
         return objectMapper.writeValueAsString(requestBody);
     }
 
-    private List<Map<String, Object>> processResultSet(ResultSet resultSet) throws SQLException, CustomException {
-        List<Map<String, Object>> response = new ArrayList<>();
-
-        while (resultSet.next()) {
-            String jsonResponse = resultSet.getString("response_text");
-
-            if (isErrorResponse(jsonResponse)) {
-                log.error("DB Error - Response: {}", jsonResponse);
-
-                Exception dbException = new SQLException("Database operation failed: " + jsonResponse);
-                loggingService.logError("DbService", "executeQuery", "Database operation failed", dbException);
-
-                throw new CustomException(500, "Database operation failed: " + jsonResponse);
-            }
-
-            try {
-                Map<String, Object> responseMap = objectMapper.readValue(jsonResponse, new TypeReference<>() {
-                });
-                response.add(responseMap);
-            } catch (Exception e) {
-                log.debug("Non-JSON response: {}", jsonResponse);
-                Map<String, Object> rawResponse = new HashMap<>();
-                rawResponse.put("message", jsonResponse);
-                response.add(rawResponse);
-            }
-        }
-
-        return response;
-    }
-
-    private boolean isErrorResponse(String jsonResponse) {
-        return jsonResponse != null
-                && (jsonResponse.startsWith("Database error") || jsonResponse.startsWith("Routing error")
-                        || jsonResponse.contains("ORA-") || jsonResponse.toLowerCase().contains("error"));
-    }
-
     private void logQueryPerformance(String signature, long executionTime) {
         queryPerformanceMetrics.merge(signature, executionTime, Long::sum);
 
@@ -318,6 +240,21 @@ public class DBService {
         }
     }
 
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        writer.summary("twizzle_db_action_duration_seconds", "Uncached DBService action latency including retries");
+        for (Map.Entry<String, LatencyHistogram> entry : actionTimings.entrySet()) {
+            writer.latency("twizzle_db_action_duration_seconds", entry.getValue().snapshot(), "action",
+                    entry.getKey());
+        }
+
+        writer.counter("twizzle_db_action_errors", "DBService actions that failed after retries");
+        for (Map.Entry<String, LongAdder> entry : actionErrors.entrySet()) {
+            writer.total("twizzle_db_action_errors", entry.getValue().sum(), "action", entry.getKey());
+        }
+
+    }
+
     public Map<String, Object> getPerformanceStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalQueries", queryPerformanceMetrics.size());
@@ -333,4 +270,20 @@ public class DBService {
 
         return stats;
     }
+
+    /**
+     * Cache key for a read; equality is on the canonical signature only, the request travels along for the loader.
+     */
+    private record QueryKey(String signature, String action, Object requestBody) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof QueryKey other && signature.equals(other.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return signature.hashCode();
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.exceptions.CustomException;
+import com.twizzle.server.models.Post;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes {@link DBService} actions against a backing store and returns the rows the PL/SQL package would return.
+ * Caching, tracing and action metrics stay in {@code DBService}; implementations only run the action. Selected with
+ * {@code app.database.executor} ({@code oracle} by default, {@code memory} for local load tests).
+ */
+public interface DbActionExecutor {
+
+    List<Map<String, Object>> execute(String action, Object requestBody) throws IOException, CustomException;
+
+    /**
+     * Like {@link #execute}, but a read is never served by a read replica, which may lag behind the primary. For
+     * callers that decide a write from the answer.
+     */
+    default List<Map<String, Object>> executeOnPrimary(String action, Object requestBody)
+            throws IOException, CustomException {
+        return execute(action, requestBody);
+    }
+
+    /**
+     * Runs the same write {@code action} for each of {@code requestBodies}, in as few round trips as the backend
+     * allows, discarding the rows they return. Fails as a whole if any request fails; requests before the failing one
+     * may have been applied.
+     */
+    default void executeBatch(String action, List<? extends Map<String, Object>> requestBodies)
+            throws IOException, CustomException {
+        for (Map<String, Object> requestBody : requestBodies) {
+            execute(action, requestBody);
+        }
+    }
+
+    List<Map<String, Object>> createPostWithImage(Post post) throws SQLException;
+
+    /**
+     * Returns {@code IMAGE_DATA} (a {@link java.sql.Blob} or {@code byte[]}), {@code IMAGE_FILENAME} and
+     * {@code IMAGE_CONTENT_TYPE}, or {@code null} when the post has no image.
+     */
+    Map<String, Object> getPostImageData(Long postId) throws SQLException;
+
+    /**
+     * Whether the listing actions seek past {@code cursorTimestamp}/{@code cursorId} (see
+     * {@link com.twizzle.server.utils.PageCursor}). When they do not, a cursor would be silently ignored and the
+     * first page returned again, so the controllers neither hand out nor accept cursors.
+     */
+    default boolean supportsKeysetPaging() {
+        return false;
+    }
+}
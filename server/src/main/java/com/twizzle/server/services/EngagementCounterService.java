@@ -0,0 +1,535 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.exceptions.CustomException;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import com.twizzle.server.utils.WriteBehindJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Like and comment counts served from memory, with likes absorbed in memory and written behind.
+ *
+ * <p>
+ * A like or unlike only updates the per-post {@link LongAdder} and the pending state of that (post, user) pair, and is
+ * journaled (see {@link WriteBehindJournal}) before it is acknowledged. A single flusher applies the net result of
+ * each pair every {@code app.engagement.flush-interval-ms}: toggling ten times in one interval costs at most one
+ * write, and the writes of a run go out in batches of {@code app.engagement.flush-batch-size} with one cache
+ * invalidation each. The flusher reads each post's stored likers once before toggling, so replaying the journal after
+ * a crash is idempotent. The stored state a like starts from comes from the {@link PostLikersCache} bitmaps where
+ * possible, so repeated likes never reach the database.
+ *
+ * <p>
+ * At most {@code app.engagement.max-pending-likes} pairs wait to be written; beyond that new likes are refused with
+ * 503 until the flusher catches up. The journal is checkpointed after each run, so it holds what is still pending
+ * rather than everything accepted since the last run.
+ *
+ * <p>
+ * Counts start from the database value and follow this node's changes; they are reloaded once they are older than
+ * {@code app.engagement.reload-interval-ms}, which also picks up changes made by other nodes. Comments are still
+ * written synchronously; only their count is kept here.
+ */
+@Service
+@Slf4j
+public class EngagementCounterService implements MetricsSource {
+
+    private final DBService dbService;
+    private final PostLikersCache postLikers;
+    private final ResourceVersions resourceVersions;
+    private final Map<Long, PostCounts> posts = new ConcurrentHashMap<>();
+    private final Map<LikeKey, PendingLike> pendingLikes = new ConcurrentHashMap<>();
+    private final LongAdder flushedApplied = new LongAdder();
+    private final LongAdder flushedUnchanged = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder flushedDropped = new LongAdder();
+    private final LongAdder malformedJournalLines = new LongAdder();
+    private final LongAdder rejectedLikes = new LongAdder();
+    /** Serialises flushes; a lock rather than {@code synchronized}, which would pin a virtual thread during JDBC. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${app.engagement.write-behind.enabled:true}")
+    private boolean writeBehind;
+
+    @Value("${app.engagement.journal.dir:data/engagement}")
+    private String journalDir;
+
+    @Value("${app.engagement.reload-interval-ms:60000}")
+    private long reloadIntervalMs;
+
+    @Value("${app.engagement.max-pending-likes:100000}")
+    private int maxPendingLikes;
+
+    @Value("${app.engagement.flush-batch-size:200}")
+    private int flushBatchSize;
+
+    private WriteBehindJournal journal;
+
+    public EngagementCounterService(DBService dbService, PostLikersCache postLikers,
+            ResourceVersions resourceVersions) {
+        this.dbService = dbService;
+        this.postLikers = postLikers;
+        this.resourceVersions = resourceVersions;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!writeBehind) {
+            return;
+        }
+        journal = new WriteBehindJournal(Paths.get(journalDir));
+        for (String line : journal.recover()) {
+            if (!recoverLine(line)) {
+                malformedJournalLines.increment();
+            }
+        }
+        if (malformedJournalLines.sum() > 0) {
+            log.warn("Skipped {} malformed journal lines in {}", malformedJournalLines.sum(), journalDir);
+        }
+        pendingLikes.forEach((key, pending) -> posts.computeIfAbsent(key.postId(), id -> new PostCounts()).likesPending
+                .add(pending.net()));
+        journal.checkpoint(this::journalLines);
+        if (!pendingLikes.isEmpty()) {
+            log.info("Recovered {} unflushed likes from the journal", pendingLikes.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (journal != null) {
+            flush();
+            journal.close();
+        }
+    }
+
+    /**
+     * Likes ({@code liked == true}), unlikes ({@code false}) or toggles ({@code null}) a post and returns the new state
+     * and count. Liking a post that is already liked, or unliking one that is not, changes nothing and is answered
+     * from memory. With write-behind the change is durable in the journal but reaches the database with the next
+     * flush.
+     */
+    public Map<String, Object> setLike(long postId, String userId, Boolean liked) throws SQLException, IOException {
+        if (!writeBehind) {
+            return setLikeDirectly(postId, userId, liked);
+        }
+
+        LikeKey key = new LikeKey(postId, userId);
+        if (pendingLikes.size() >= maxPendingLikes && !pendingLikes.containsKey(key)) {
+            rejectedLikes.increment();
+            throw new CustomException(503, "Too many likes are waiting to be saved, please retry shortly");
+        }
+        LikeChange[] change = new LikeChange[1];
+        while (change[0] == null) {
+            Boolean stored = pendingLikes.containsKey(key) ? null : storedLike(postId, userId);
+            journal.append(() -> {
+                PendingLike next = pendingLikes.compute(key, (k, current) -> {
+                    if (current == null && stored == null) {
+                        // Settled by the flusher since the check above; read the stored state again.
+                        return null;
+                    }
+                    boolean effective = current != null ? current.desired() : stored;
+                    boolean desired = liked != null ? liked : !effective;
+                    change[0] = new LikeChange(desired, desired != effective);
+                    if (!change[0].changed()) {
+                        return current;
+                    }
+                    return new PendingLike(current != null ? current.initial() : stored, desired);
+                });
+                if (change[0] == null || !change[0].changed()) {
+                    return null;
+                }
+                posts.computeIfAbsent(postId, id -> new PostCounts()).likesPending.add(next.desired() ? 1 : -1);
+                return journalLine(key, next);
+            });
+        }
+
+        if (change[0].changed()) {
+            // The feed shows the viewer's own pending likes before they reach the database.
+            resourceVersions.changedHere(ResourceVersions.POSTS);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("postId", postId);
+        response.put("userId", userId);
+        response.put("liked", change[0].liked());
+        response.put("likesCount", likesCount(postId));
+        response.put("message", likeMessage(change[0]));
+        return response;
+    }
+
+    /**
+     * The user's like state including changes not yet flushed, or {@code null} when it is not known in memory and
+     * the database has to be asked.
+     */
+    public Boolean hasLiked(long postId, String userId) {
+        PendingLike pending = pendingLikes.get(new LikeKey(postId, userId));
+        return pending != null ? pending.desired() : postLikers.hasLiked(postId, userId);
+    }
+
+    /**
+     * Like states of one user for a page of post rows, answered from memory with one pending-like lookup per row;
+     * posts not known in memory are left out.
+     */
+    public Map<Long, Boolean> likedBy(String userId, List<Map<String, Object>> postRows) {
+        Map<Long, Boolean> liked = postLikers.likedBy(userId, postRows);
+        if (pendingLikes.isEmpty()) {
+            return liked;
+        }
+        for (Map<String, Object> row : postRows) {
+            Long postId = PostLikersCache.postIdOf(row);
+            PendingLike pending = postId != null ? pendingLikes.get(new LikeKey(postId, userId)) : null;
+            if (pending != null) {
+                liked.put(postId, pending.desired());
+            }
+        }
+        return liked;
+    }
+
+    public long likesCount(long postId) throws IOException {
+        PostCounts counts = posts.computeIfAbsent(postId, id -> new PostCounts());
+        if (!counts.likesLoaded) {
+            counts.likesBase.set(loadCount(postId, "GET_POST_LIKES_COUNT", "likesCount"));
+            counts.likesLoaded = true;
+            counts.loadedAtMillis = System.currentTimeMillis();
+        }
+        return counts.likesBase.get() + counts.likesPending.sum();
+    }
+
+    public long commentsCount(long postId) throws IOException {
+        PostCounts counts = posts.computeIfAbsent(postId, id -> new PostCounts());
+        if (!counts.commentsLoaded) {
+            counts.comments.set(loadCount(postId, "GET_POST_COMMENTS_COUNT", "commentsCount"));
+            counts.commentsLoaded = true;
+            counts.loadedAtMillis = System.currentTimeMillis();
+        }
+        return counts.comments.get();
+    }
+
+    public void commentAdded(long postId) {
+        adjustComments(postId, 1);
+    }
+
+    public void commentRemoved(long postId) {
+        adjustComments(postId, -1);
+    }
+
+    @Scheduled(fixedDelayString = "${app.engagement.journal.sync-interval-ms:100}")
+    public void syncJournal() {
+        if (journal != null) {
+            journal.sync();
+        }
+    }
+
+    /**
+     * Writes the net like changes to the database: one read of the stored likers per post, then the toggles that are
+     * still needed in batches. Pairs that fail stay pending and are retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.engagement.flush-interval-ms:1000}")
+    public void flush() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            writePending();
+            // Only what is still pending (failures and likes accepted meanwhile) is carried into the new file.
+            journal.checkpoint(() -> {
+                evictIdlePosts();
+                return journalLines();
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        Map<Long, List<Map.Entry<LikeKey, PendingLike>>> byPost = new TreeMap<>();
+        pendingLikes.forEach((key, pending) -> byPost.computeIfAbsent(key.postId(), id -> new ArrayList<>())
+                .add(Map.entry(key, pending)));
+
+        List<Map.Entry<LikeKey, PendingLike>> toggles = new ArrayList<>();
+        byPost.forEach((postId, pairs) -> {
+            try {
+                Set<String> stored = storedLikers(postId, pairs);
+                if (stored == null) {
+                    // The post is gone; its likes could never be written and would fail every batch they are in.
+                    flushedDropped.add(pairs.size());
+                    pairs.forEach(pair -> settle(pair.getKey(), pair.getValue(), 0));
+                    log.info("Dropped {} pending likes of deleted post {}", pairs.size(), postId);
+                    return;
+                }
+                for (Map.Entry<LikeKey, PendingLike> pair : pairs) {
+                    if (stored.contains(pair.getKey().userId()) != pair.getValue().desired()) {
+                        toggles.add(pair);
+                    } else {
+                        flushedUnchanged.increment();
+                        settle(pair.getKey(), pair.getValue(), 0);
+                    }
+                }
+            } catch (IOException | CustomException e) {
+                flushFailures.add(pairs.size());
+                log.warn("Could not read the likers of post {}: {}", postId, e.getMessage());
+            }
+        });
+
+        Set<Long> written = new HashSet<>();
+        for (int from = 0; from < toggles.size(); from += flushBatchSize) {
+            List<Map.Entry<LikeKey, PendingLike>> batch = toggles.subList(from,
+                    Math.min(toggles.size(), from + flushBatchSize));
+            List<Map<String, Object>> requests = new ArrayList<>(batch.size());
+            batch.forEach(pair -> requests.add(likeRequest(pair.getKey().postId(), pair.getKey().userId())));
+            try {
+                dbService.executeBatch("LIKE_POST", requests);
+            } catch (IOException | CustomException e) {
+                flushFailures.add(batch.size());
+                log.warn("Could not flush {} likes: {}", batch.size(), e.getMessage());
+                continue;
+            }
+            for (Map.Entry<LikeKey, PendingLike> pair : batch) {
+                settle(pair.getKey(), pair.getValue(), pair.getValue().desired() ? 1 : -1);
+                written.add(pair.getKey().postId());
+                flushedApplied.increment();
+            }
+        }
+        written.forEach(postLikers::publishChange);
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        writer.gauge("twizzle_engagement_pending_likes", "Likes and unlikes not yet written to the database");
+        writer.sample("twizzle_engagement_pending_likes", pendingLikes.size());
+
+        writer.gauge("twizzle_engagement_tracked_posts", "Posts with counts held in memory");
+        writer.sample("twizzle_engagement_tracked_posts", posts.size());
+
+        writer.counter("twizzle_engagement_like_flushes", "Flushed likes by outcome");
+        writer.total("twizzle_engagement_like_flushes", flushedApplied.sum(), "outcome", "applied");
+        writer.total("twizzle_engagement_like_flushes", flushedUnchanged.sum(), "outcome", "unchanged");
+        writer.total("twizzle_engagement_like_flushes", flushFailures.sum(), "outcome", "failed");
+        writer.total("twizzle_engagement_like_flushes", flushedDropped.sum(), "outcome", "dropped");
+
+        writer.counter("twizzle_engagement_rejected_likes", "Likes refused because the write-behind backlog was full");
+        writer.total("twizzle_engagement_rejected_likes", rejectedLikes.sum());
+
+        writer.counter("twizzle_engagement_journal_malformed_lines", "Journal lines skipped on recovery");
+        writer.total("twizzle_engagement_journal_malformed_lines", malformedJournalLines.sum());
+    }
+
+    /**
+     * Marks a flushed pair as written. If the user toggled again meanwhile, the newer state stays pending relative to
+     * what was just written.
+     */
+    private void settle(LikeKey key, PendingLike flushed, int applied) {
+        postLikers.update(key.postId(), key.userId(), flushed.desired());
+        PostCounts counts = posts.get(key.postId());
+        if (counts != null) {
+            counts.likesPending.add(-flushed.net());
+            counts.likesBase.addAndGet(applied);
+        }
+        pendingLikes.computeIfPresent(key, (k, current) -> current.equals(flushed)
+                ? null
+                : new PendingLike(flushed.desired(), current.desired()));
+    }
+
+    /**
+     * Drops counts that are due for a reload and have nothing pending. Runs inside the journal checkpoint, which
+     * excludes concurrent toggles.
+     */
+    private void evictIdlePosts() {
+        Set<Long> busy = new HashSet<>();
+        pendingLikes.keySet().forEach(key -> busy.add(key.postId()));
+        long cutoff = System.currentTimeMillis() - reloadIntervalMs;
+        posts.entrySet().removeIf(entry -> !busy.contains(entry.getKey()) && entry.getValue().loadedAtMillis < cutoff);
+    }
+
+    private void adjustComments(long postId, int delta) {
+        PostCounts counts = posts.get(postId);
+        if (counts != null && counts.commentsLoaded) {
+            counts.comments.addAndGet(delta);
+        }
+    }
+
+    private Map<String, Object> setLikeDirectly(long postId, String userId, Boolean liked)
+            throws SQLException, IOException {
+        Boolean current = liked != null ? storedLike(postId, userId) : null;
+        if (current != null && current.equals(liked)) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("postId", postId);
+            response.put("userId", userId);
+            response.put("liked", liked);
+            response.put("likesCount", likesCount(postId));
+            response.put("message", likeMessage(new LikeChange(liked, false)));
+            return response;
+        }
+
+        List<Map<String, Object>> result = dbService.executeQuery(likeRequest(postId, userId));
+        postLikers.evict(postId);
+        PostCounts counts = posts.get(postId);
+        if (counts != null) {
+            counts.likesLoaded = false;
+        }
+        if (result.isEmpty()) {
+            throw new CustomException(404, "Post not found");
+        }
+        return result.get(0);
+    }
+
+    private boolean storedLike(long postId, String userId) throws IOException {
+        Boolean known = postLikers.hasLiked(postId, userId);
+        return known != null ? known : storedLike(postId, userId, false);
+    }
+
+    private boolean storedLike(long postId, String userId, boolean fresh) throws IOException {
+        Map<String, Object> request = new HashMap<>();
+        request.put("action", "CHECK_USER_LIKED_POST");
+        request.put("postId", postId);
+        request.put("userId", userId);
+        List<Map<String, Object>> result;
+        try {
+            result = fresh ? dbService.executeUncached(request) : dbService.executeQuery(request);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        if (result.isEmpty()) {
+            return false;
+        }
+        Object hasLiked = result.get(0).get("hasLiked");
+        return Boolean.TRUE.equals(hasLiked) || "true".equalsIgnoreCase(String.valueOf(hasLiked))
+                || "1".equals(String.valueOf(hasLiked));
+    }
+
+    /**
+     * User ids that like the post according to the database, read fresh: from the post row when it lists its likers,
+     * otherwise by checking each of {@code pairs}. {@code null} if the post does not exist.
+     */
+    private Set<String> storedLikers(long postId, List<Map.Entry<LikeKey, PendingLike>> pairs) throws IOException {
+        Set<String> likers = new HashSet<>();
+        Map<String, Object> request = new HashMap<>();
+        request.put("action", "GET_POST_BY_ID");
+        request.put("postId", postId);
+        List<Map<String, Object>> result = dbService.executeUncached(request);
+        if (result.isEmpty()) {
+            return null;
+        }
+        if (result.get(0).get("likedUserIds") instanceof List<?> userIds) {
+            userIds.forEach(userId -> likers.add(String.valueOf(userId)));
+            return likers;
+        }
+        for (Map.Entry<LikeKey, PendingLike> pair : pairs) {
+            if (storedLike(postId, pair.getKey().userId(), true)) {
+                likers.add(pair.getKey().userId());
+            }
+        }
+        return likers;
+    }
+
+    private long loadCount(long postId, String action, String field) throws IOException {
+        Map<String, Object> request = new HashMap<>();
+        request.put("action", action);
+        request.put("postId", postId);
+        List<Map<String, Object>> result = dbService.executeUncached(request);
+        if (result.isEmpty()) {
+            throw new CustomException(404, "Post not found");
+        }
+        Object value = result.get(0).get(field);
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private List<String> journalLines() {
+        List<String> lines = new ArrayList<>(pendingLikes.size());
+        pendingLikes.forEach((key, pending) -> lines.add(journalLine(key, pending)));
+        return lines;
+    }
+
+    /**
+     * One pending pair as {@code postId TAB initial TAB desired TAB userId}. The user id is URL-encoded so that no
+     * value can contain the field or line separators.
+     */
+    private static String journalLine(LikeKey key, PendingLike pending) {
+        return key.postId() + "\t" + (pending.initial() ? 1 : 0) + "\t" + (pending.desired() ? 1 : 0) + "\t"
+                + URLEncoder.encode(key.userId(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Restores one journal line; a line that does not parse (e.g. cut short or hand-edited) is rejected rather than
+     * preventing startup.
+     */
+    private boolean recoverLine(String line) {
+        String[] fields = line.split("\t");
+        if (fields.length != 4 || !isFlag(fields[1]) || !isFlag(fields[2]) || fields[3].isEmpty()) {
+            return false;
+        }
+        try {
+            LikeKey key = new LikeKey(Long.parseLong(fields[0]), URLDecoder.decode(fields[3], StandardCharsets.UTF_8));
+            pendingLikes.put(key, new PendingLike("1".equals(fields[1]), "1".equals(fields[2])));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean isFlag(String field) {
+        return "0".equals(field) || "1".equals(field);
+    }
+
+    private static String likeMessage(LikeChange change) {
+        if (change.changed()) {
+            return change.liked() ? "Post liked" : "Post unliked";
+        }
+        return change.liked() ? "Post already liked" : "Post not liked";
+    }
+
+    private static Map<String, Object> likeRequest(long postId, String userId) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("action", "LIKE_POST");
+        request.put("postId", postId);
+        request.put("userId", userId);
+        return request;
+    }
+
+    private record LikeKey(long postId, String userId) {
+    }
+
+    private record LikeChange(boolean liked, boolean changed) {
+    }
+
+    /**
+     * Like state of one pair: {@code initial} as stored in the database, {@code desired} after the pending toggles.
+     */
+    private record PendingLike(boolean initial, boolean desired) {
+        int net() {
+            return (desired ? 1 : 0) - (initial ? 1 : 0);
+        }
+    }
+
+    private static final class PostCounts {
+        private final AtomicLong likesBase = new AtomicLong();
+        private final LongAdder likesPending = new LongAdder();
+        private final AtomicLong comments = new AtomicLong();
+        private volatile boolean likesLoaded;
+        private volatile boolean commentsLoaded;
+        private volatile long loadedAtMillis = System.currentTimeMillis();
+    }
+}
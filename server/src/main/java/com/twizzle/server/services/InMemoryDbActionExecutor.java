@@ -0,0 +1,456 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.exceptions.CustomException;
+import com.twizzle.server.models.Post;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-process stand-in for the Oracle package, selected with {@code app.database.executor=memory}. It implements the
+ * post, like, comment, community and scheduled-post actions on concurrent maps and returns rows shaped like the
+ * package's JSON, so the controllers, caches and serialisation can be load-tested and profiled without a database.
+ * Nothing is persisted; {@code app.database.memory.seed-posts} pre-fills the feed at startup.
+ *
+ * <p>
+ * This is a test double, not a second implementation of the business rules: validation beyond what the controllers
+ * rely on is deliberately left out.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.database.executor", havingValue = "memory")
+public class InMemoryDbActionExecutor implements DbActionExecutor {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong postIds = new AtomicLong();
+    private final AtomicLong commentIds = new AtomicLong();
+    private final AtomicLong communityIds = new AtomicLong();
+    private final AtomicLong scheduledIds = new AtomicLong();
+
+    /** Newest first, so a page is a prefix walk. */
+    private final NavigableMap<Long, PostRow> posts = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final Map<String, NavigableSet<Long>> postsByAuthor = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> likesByUser = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableMap<Long, Map<String, Object>>> commentsByPost = new ConcurrentHashMap<>();
+    private final Map<Long, CommunityRow> communities = new ConcurrentHashMap<>();
+    private final Map<String, Long> communityIdsByName = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, ScheduledRow> scheduled = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+    public InMemoryDbActionExecutor(@Value("${app.database.memory.seed-posts:0}") int seedPosts) {
+        for (int i = 0; i < seedPosts; i++) {
+            insertPost("Seed post " + i, String.valueOf(i % 100), "user" + (i % 100), null);
+        }
+        log.warn("Using the in-memory DB action executor; data is not persisted (seeded {} posts)", seedPosts);
+    }
+
+    @Override
+    public List<Map<String, Object>> execute(String action, Object requestBody) throws CustomException {
+        if (!(requestBody instanceof Map<?, ?> request)) {
+            throw new CustomException(500, "Routing error: request must be a map");
+        }
+
+        return switch (action.toUpperCase()) {
+            case "CREATE" -> List.of(insertPost(string(request, "content"), string(request, "authorId"),
+                    string(request, "authorName"), null).toMap());
+            case "GET_POST_BY_ID" -> findPost(number(request, "postId")).map(p -> List.of(p.toMap())).orElse(List.of());
+            case "GET_ALL_POSTS_PAGED" -> List.of(page(after(posts, request).values().stream().filter(p -> !p.deleted)
+                    .map(PostRow::toMap), posts.size(), request));
+            case "GET_USER_POSTS" -> userPosts(request);
+            case "DELETE_POST" -> deletePost(number(request, "postId"));
+            case "LIKE_POST" -> List.of(toggleLike(number(request, "postId"), string(request, "userId")));
+            case "GET_POST_LIKES_COUNT" -> findPost(number(request, "postId"))
+                    .map(p -> List.of(Map.<String, Object>of("postId", p.id, "likesCount", p.likers.size())))
+                    .orElse(List.of());
+            case "CHECK_USER_LIKED_POST" -> List.of(checkLiked(number(request, "postId"), string(request, "userId")));
+            case "GET_USER_LIKED_POSTS" -> likedPosts(string(request, "userId"));
+            case "CREATE_COMMENT" -> List.of(createComment(request));
+            case "GET_COMMENTS_BY_POST_ID" -> comments(request);
+            case "GET_POST_COMMENTS_COUNT" -> List.of(Map.of("postId", number(request, "postId"), "commentsCount",
+                    commentsByPost.getOrDefault(number(request, "postId"), new ConcurrentSkipListMap<>()).size()));
+            case "DELETE_COMMENT" -> deleteComment(number(request, "postId"), number(request, "commentId"));
+            case "GET_ALL_COMMUNITIES" -> communities.values().stream().sorted(Comparator.comparing(c -> c.id))
+                    .map(CommunityRow::toMap).toList();
+            case "GET_COMMUNITY_BY_NAME" -> community(string(request, "name")).map(c -> List.of(c.toMap()))
+                    .orElse(List.of());
+            case "GET_USER_COUNT_FOR_COMMUNITY" -> community(string(request, "name"))
+                    .map(c -> List.<Map<String, Object>>of(Map.of("USER_COUNT", c.members.size())))
+                    .orElse(List.of());
+            case "CREATE_COMMUNITY" -> List.of(createCommunity(request));
+            case "JOIN_COMMUNITY" -> membership(request, true);
+            case "LEAVE_COMMUNITY" -> membership(request, false);
+            case "CREATE_SCHEDULED" -> List.of(schedule(request));
+            case "GET_ALL_SCHEDULED_POSTS_PAGED" -> List.of(page(after(scheduled, request).values().stream()
+                    .map(ScheduledRow::toMap), scheduled.size(), request));
+            case "PUBLISH_SCHEDULED" -> List.of(publishDue());
+            default -> throw new CustomException(500, "Database operation failed: Routing error: unknown action "
+                    + action);
+        };
+    }
+
+    @Override
+    public boolean supportsKeysetPaging() {
+        return true;
+    }
+
+    @Override
+    public List<Map<String, Object>> createPostWithImage(Post post) {
+        Image image = post.getImageData() != null
+                ? new Image(post.getImageData(), post.getImageFilename(), post.getImageContentType())
+                : null;
+        return List.of(insertPost(post.getContent(), post.getAuthorId(), post.getAuthorName(), image).toMap());
+    }
+
+    @Override
+    public Map<String, Object> getPostImageData(Long postId) {
+        PostRow post = posts.get(postId);
+        if (post == null || post.image == null) {
+            return null;
+        }
+        Map<String, Object> imageData = new HashMap<>();
+        imageData.put("IMAGE_DATA", post.image.data());
+        imageData.put("IMAGE_FILENAME", post.image.filename());
+        imageData.put("IMAGE_CONTENT_TYPE", post.image.contentType());
+        return imageData;
+    }
+
+    private PostRow insertPost(String content, String authorId, String authorName, Image image) {
+        PostRow post = new PostRow(postIds.incrementAndGet(), content, authorId, authorName, LocalDateTime.now(),
+                image);
+        posts.put(post.id, post);
+        postsByAuthor.computeIfAbsent(authorId, k -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()))
+                .add(post.id);
+        return post;
+    }
+
+    private Optional<PostRow> findPost(long postId) {
+        PostRow post = posts.get(postId);
+        return post == null || post.deleted ? Optional.empty() : Optional.of(post);
+    }
+
+    private List<Map<String, Object>> userPosts(Map<?, ?> request) {
+        NavigableSet<Long> ids = postsByAuthor.getOrDefault(string(request, "userId"), new ConcurrentSkipListSet<>());
+        NavigableSet<Long> remaining = request.get("cursorId") != null ? ids.tailSet(number(request, "cursorId"), false)
+                : ids;
+        Stream<Map<String, Object>> rows = remaining.stream().map(posts::get).filter(p -> p != null && !p.deleted)
+                .map(PostRow::toMap);
+        return List.of(page(rows, ids.size(), request));
+    }
+
+    private List<Map<String, Object>> deletePost(long postId) {
+        PostRow post = posts.get(postId);
+        if (post == null) {
+            return List.of();
+        }
+        post.deleted = true;
+        return List.of(Map.of("message", "Post deleted successfully", "postId", postId));
+    }
+
+    private Map<String, Object> toggleLike(long postId, String userId) {
+        PostRow post = findPost(postId).orElseThrow(() -> new CustomException(404, "Post not found"));
+        boolean liked;
+        synchronized (post) {
+            liked = post.likers.add(userId);
+            if (!liked) {
+                post.likers.remove(userId);
+            }
+        }
+        NavigableSet<Long> userLikes = likesByUser.computeIfAbsent(userId,
+                k -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()));
+        if (liked) {
+            userLikes.add(postId);
+        } else {
+            userLikes.remove(postId);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("postId", postId);
+        response.put("userId", userId);
+        response.put("liked", liked);
+        response.put("likesCount", post.likers.size());
+        response.put("message", liked ? "Post liked" : "Post unliked");
+        return response;
+    }
+
+    private Map<String, Object> checkLiked(long postId, String userId) {
+        PostRow post = posts.get(postId);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("postId", postId);
+        response.put("userId", userId);
+        response.put("hasLiked", post != null && post.likers.contains(userId));
+        return response;
+    }
+
+    private List<Map<String, Object>> likedPosts(String userId) {
+        NavigableSet<Long> ids = likesByUser.getOrDefault(userId, new ConcurrentSkipListSet<>());
+        List<Map<String, Object>> liked = ids.stream().map(posts::get).filter(p -> p != null && !p.deleted)
+                .map(PostRow::toMap).toList();
+        if (liked.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("likedPosts", liked);
+        response.put("totalCount", liked.size());
+        response.put("userId", userId);
+        return List.of(response);
+    }
+
+    private Map<String, Object> createComment(Map<?, ?> request) {
+        long postId = number(request, "postId");
+        findPost(postId).orElseThrow(() -> new CustomException(404, "Post not found"));
+
+        long id = commentIds.incrementAndGet();
+        Object timestamp = request.get("commentTimestamp");
+        Map<String, Object> comment = new LinkedHashMap<>();
+        comment.put("id", id);
+        comment.put("userId", string(request, "userId"));
+        comment.put("postId", String.valueOf(postId));
+        comment.put("content", string(request, "content"));
+        comment.put("commentTimestamp", timestamp != null ? timestamp.toString() : LocalDateTime.now().toString());
+
+        commentsByPost.computeIfAbsent(postId, k -> new ConcurrentSkipListMap<>()).put(id, Map.copyOf(comment));
+        return comment;
+    }
+
+    private List<Map<String, Object>> comments(Map<?, ?> request) {
+        NavigableMap<Long, Map<String, Object>> byId = commentsByPost.get(number(request, "postId"));
+        if (byId == null) {
+            return List.of();
+        }
+        // Comment pages are 1-based, like the controller's default.
+        int page = Math.max(1, intOr(request, "page", 1));
+        int size = intOr(request, "size", 10);
+        long skip = request.get("cursorId") != null ? 0 : (long) (page - 1) * size;
+        return after(byId, request).values().stream().skip(skip).limit(size).toList();
+    }
+
+    private List<Map<String, Object>> deleteComment(long postId, long commentId) {
+        NavigableMap<Long, Map<String, Object>> byId = commentsByPost.get(postId);
+        if (byId == null || byId.remove(commentId) == null) {
+            return List.of();
+        }
+        return List.of(Map.of("message", "Comment deleted successfully", "commentId", String.valueOf(commentId)));
+    }
+
+    private Optional<CommunityRow> community(String name) {
+        Long id = communityIdsByName.get(name);
+        return Optional.ofNullable(id != null ? communities.get(id) : null);
+    }
+
+    private Map<String, Object> createCommunity(Map<?, ?> request) {
+        String name = string(request, "name");
+        long id = communityIds.incrementAndGet();
+        if (communityIdsByName.putIfAbsent(name, id) != null) {
+            throw new CustomException(500, "Database operation failed: community " + name + " already exists");
+        }
+        CommunityRow community = new CommunityRow(id, name, (String) request.get("description"),
+                number(request, "ownerId"), LocalDateTime.now());
+        community.members.add(String.valueOf(community.ownerId));
+        communities.put(id, community);
+        return community.toMap();
+    }
+
+    private List<Map<String, Object>> membership(Map<?, ?> request, boolean join) {
+        CommunityRow community = communities.get(number(request, "communityId"));
+        if (community == null) {
+            throw new CustomException(500, "Database operation failed: community not found");
+        }
+        String userId = string(request, "userId");
+        if (join) {
+            community.members.add(userId);
+        } else {
+            community.members.remove(userId);
+        }
+        return List.of(Map.of("message", join ? "Joined community" : "Left community"));
+    }
+
+    private Map<String, Object> schedule(Map<?, ?> request) {
+        ScheduledRow row = new ScheduledRow(scheduledIds.incrementAndGet(), string(request, "content"),
+                string(request, "authorId"), (String) request.get("authorName"),
+                LocalDateTime.parse(string(request, "scheduledFor")));
+        scheduled.put(row.id, row);
+        return row.toMap();
+    }
+
+    private Map<String, Object> publishDue() {
+        LocalDateTime now = LocalDateTime.now();
+        int published = 0;
+        for (ScheduledRow row : scheduled.values()) {
+            if (!row.scheduledFor.isAfter(now) && scheduled.remove(row.id, row)) {
+                insertPost(row.content, row.authorId, row.authorName, null);
+                published++;
+            }
+        }
+        return Map.of("publishedCount", published);
+    }
+
+    /**
+     * Rows after the request's {@code cursorId} in the map's order, i.e. a keyset seek; the whole map without one. Ids
+     * are assigned in creation order, so they stand in for the (timestamp, id) key the package seeks on.
+     */
+    private static <V> NavigableMap<Long, V> after(NavigableMap<Long, V> rows, Map<?, ?> request) {
+        return request.get("cursorId") != null ? rows.tailMap(number(request, "cursorId"), false) : rows;
+    }
+
+    /**
+     * Builds the paged envelope the controllers pass through; {@code total} may overcount deleted posts, as a
+     * soft-delete count in SQL would. With a cursor the rows already start after it and are not skipped.
+     */
+    private static Map<String, Object> page(Stream<Map<String, Object>> rows, long total, Map<?, ?> request) {
+        boolean seek = request.get("cursorId") != null;
+        int page = seek ? 0 : intOr(request, "page", 0);
+        int safeSize = Math.max(1, intOr(request, "size", 10));
+        List<Map<String, Object>> content = rows.skip((long) page * safeSize).limit(safeSize + 1).toList();
+        boolean hasNext = content.size() > safeSize;
+        int totalPages = (int) ((total + safeSize - 1) / safeSize);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("content", hasNext ? content.subList(0, safeSize) : content);
+        response.put("totalElements", total);
+        response.put("totalPages", totalPages);
+        response.put("currentPage", page);
+        response.put("pageSize", safeSize);
+        response.put("first", !seek && page == 0);
+        response.put("last", !hasNext);
+        response.put("hasNext", hasNext);
+        response.put("hasPrevious", seek || page > 0);
+        return response;
+    }
+
+    private static String string(Map<?, ?> request, String key) {
+        Object value = request.get(key);
+        if (value == null || value.toString().isBlank()) {
+            throw new CustomException(400, key + " is required");
+        }
+        return value.toString();
+    }
+
+    private static long number(Map<?, ?> request, String key) {
+        Object value = request.get(key);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(string(request, key).trim());
+        } catch (NumberFormatException e) {
+            throw new CustomException(400, "Invalid " + key + ": " + value);
+        }
+    }
+
+    private static int intOr(Map<?, ?> request, String key, int defaultValue) {
+        return request.get(key) != null ? (int) number(request, key) : defaultValue;
+    }
+
+    private static String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Image(byte[] data, String filename, String contentType) {
+    }
+
+    private static final class PostRow {
+        private final long id;
+        private final String content;
+        private final String authorId;
+        private final String authorName;
+        private final LocalDateTime createdAt;
+        private final Image image;
+        private final Set<String> likers = ConcurrentHashMap.newKeySet();
+        private volatile boolean deleted;
+
+        private PostRow(long id, String content, String authorId, String authorName, LocalDateTime createdAt,
+                Image image) {
+            this.id = id;
+            this.content = content;
+            this.authorId = authorId;
+            this.authorName = authorName;
+            this.createdAt = createdAt;
+            this.image = image;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", id);
+            row.put("userId", authorId);
+            row.put("authorName", authorName);
+            row.put("content", content);
+            row.put("createdAt", createdAt.toString());
+            row.put("postDate", createdAt.toLocalDate().toString());
+            row.put("postTime", createdAt.toLocalTime().toString());
+            row.put("hasImage", image != null);
+            row.put("deleted", deleted);
+            row.put("likedUserIds", new ArrayList<>(likers));
+            row.put("likesCount", likers.size());
+            return row;
+        }
+    }
+
+    private static final class CommunityRow {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final long ownerId;
+        private final LocalDateTime createdAt;
+        private final Set<String> members = ConcurrentHashMap.newKeySet();
+
+        private CommunityRow(long id, String name, String description, long ownerId, LocalDateTime createdAt) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.ownerId = ownerId;
+            this.createdAt = createdAt;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ID", id);
+            row.put("NAME", name);
+            row.put("DESCRIPTION", description);
+            row.put("OWNER_ID", ownerId);
+            row.put("CREATED_AT", createdAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            row.put("POST_IDS", "[]");
+            row.put("USER_IDS", json(new ArrayList<>(members)));
+            return row;
+        }
+    }
+
+    private record ScheduledRow(long id, String content, String authorId, String authorName,
+            LocalDateTime scheduledFor) {
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", id);
+            row.put("authorId", authorId);
+            row.put("authorName", authorName);
+            row.put("content", content);
+            row.put("scheduledFor", scheduledFor.toString());
+            row.put("status", "SCHEDULED");
+            return row;
+        }
+    }
+}
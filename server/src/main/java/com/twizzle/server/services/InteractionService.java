@@ -2,8 +2,11 @@ package com.twizzle.server.services;
 
 import com.twizzle.server.models.*;
 import com.twizzle.server.repositories.TwizzleRepository;
+import com.twizzle.server.utils.BulkheadExecutor;
+import com.twizzle.server.utils.TracingClientInterceptor;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
@@ -23,18 +26,23 @@ public class InteractionService {
     private final TwizzleRepository twizzleRepository;
     private final RestTemplate restTemplate;
     private final LoggingService loggingService;
+    private final BulkheadExecutor outboundHttpExecutor;
 
-    public InteractionService(TwizzleRepository twizzleRepository, LoggingService loggingService) {
+    public InteractionService(TwizzleRepository twizzleRepository, LoggingService loggingService,
+            TracingService tracingService, @Qualifier("outboundHttpExecutor") BulkheadExecutor outboundHttpExecutor) {
         this.twizzleRepository = twizzleRepository;
-        this.restTemplate = createRestTemplateWithTimeouts();
+        this.restTemplate = createRestTemplateWithTimeouts(tracingService);
         this.loggingService = loggingService;
+        this.outboundHttpExecutor = outboundHttpExecutor;
     }
 
-    private RestTemplate createRestTemplateWithTimeouts() {
+    private RestTemplate createRestTemplateWithTimeouts(TracingService tracingService) {
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(10000);
         factory.setReadTimeout(30000);
-        return new RestTemplate(factory);
+        RestTemplate template = new RestTemplate(factory);
+        template.getInterceptors().add(new TracingClientInterceptor(tracingService));
+        return template;
     }
 
     public Twizzle sendQuestionToModel(ChatRequest chatRequest) {
@@ -44,7 +52,7 @@ public class InteractionService {
         conversation.setUserId(chatRequest.getUserId());
 
         try {
-            String answer = callModelApi(chatRequest.getQuestion());
+            String answer = outboundHttpExecutor.call(() -> callModelApi(chatRequest.getQuestion()));
             conversation.setChattrAnswer(answer);
             conversation.setSuccess(true);
         } catch (IllegalStateException e) {
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 
 @Service
-public class LLMService {
+public class LLMService implements CacheWarmer {
 
     private final LLMRepository llmRepository;
     private final CacheManager cacheManager;
@@ -29,14 +29,12 @@ public class LLMService {
     }
 
     public List<LLM> findAll() {
-        var llmCache = cacheManager.<String, List<LLM>>getCache("llm-all");
-        List<LLM> cachedLLMs = llmCache.getIfPresent("all");
-        if (cachedLLMs != null) {
-            return cachedLLMs;
-        }
+        return cacheManager.<String, List<LLM>>getLoadingCache("llm-all", key -> llmRepository.findAll())
+                .get("all");
+    }
 
-        List<LLM> llms = llmRepository.findAll();
-        llmCache.put("all", llms);
-        return llms;
+    @Override
+    public void warmCaches() {
+        findAll();
     }
 }
@@ -0,0 +1,42 @@
+package com.twizzle.server.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process stand-in for a real transport: messages go to every other bus instance in the same JVM. With a single
+ * application context this is effectively a no-op, but several contexts started side by side (local load tests,
+ * integration setups) behave like separate nodes, including framing and sequencing.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    private static final List<LocalCacheInvalidationBus> NODES = new CopyOnWriteArrayList<>();
+
+    public LocalCacheInvalidationBus(@Value("${app.cache.invalidation.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.cache.invalidation.batch-size:256}") int batchSize,
+            @Value("${app.cache.invalidation.flush-interval-ms:20}") long flushIntervalMs) {
+        super("cache-invalidation", queueCapacity, batchSize, flushIntervalMs);
+        NODES.add(this);
+    }
+
+    @Override
+    protected void send(byte[] message) {
+        for (LocalCacheInvalidationBus node : NODES) {
+            if (node != this) {
+                node.receive(message, message.length);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        NODES.remove(this);
+        super.close();
+    }
+}
@@ -1,29 +1,81 @@
 package com.twizzle.server.services;
 
+import com.twizzle.server.utils.BatchingEventQueue;
+import com.twizzle.server.utils.DailyRollingFileSink;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import com.twizzle.server.utils.TraceContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class LoggingService {
+public class LoggingService implements MetricsSource {
 
+    private final SecurityJournal securityJournal;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final String LOG_DIR = "server/logs/";
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
-    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final byte[] NEWLINE = {'\n'};
+
+    @Value("${logging.pipeline.queue-capacity:8192}")
+    private int queueCapacity;
+
+    @Value("${logging.pipeline.batch-size:256}")
+    private int batchSize;
+
+    @Value("${logging.pipeline.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${logging.pipeline.overflow-policy:DROP}")
+    private BatchingEventQueue.OverflowPolicy overflowPolicy;
+
+    @Value("${logging.pipeline.block-timeout-ms:5}")
+    private long blockTimeoutMs;
+
+    private DailyRollingFileSink fileSink;
+    private BatchingEventQueue<LogEvent> pipeline;
+
+    private record LogEvent(LocalDateTime timestamp, String level, String service, String method, String message,
+            String thread, String traceId, Object data, Exception exception) {
+    }
+
+    @PostConstruct
+    public void init() {
+        fileSink = new DailyRollingFileSink(Paths.get(LOG_DIR), "app-", ".log");
+        pipeline = new BatchingEventQueue<>("log-pipeline", queueCapacity, batchSize, flushIntervalMs,
+                overflowPolicy, blockTimeoutMs, new BatchingEventQueue.BatchHandler<>() {
+                    @Override
+                    public void onBatch(List<LogEvent> batch) throws Exception {
+                        writeBatch(batch);
+                    }
+
+                    @Override
+                    public void onClose() throws Exception {
+                        fileSink.close();
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pipeline.close();
+    }
 
     public void logInfo(String service, String method, String message) {
         logEvent("INFO", service, method, message, null, null);
@@ -41,38 +93,56 @@ public class LoggingService {
         logEvent("DEBUG", service, method, message, null, null);
     }
 
-    @Async
     public void logEvent(String level, String service, String method, String message, Object data,
             Exception exception) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                Map<String, Object> logEntry = createLogEntry(level, service, method, message, data, exception);
+        pipeline.offer(new LogEvent(LocalDateTime.now(), level, service, method, message,
+                Thread.currentThread().getName(), TraceContext.currentTraceId(), data, exception));
+    }
 
-                logToConsole(level, logEntry);
+    public Map<String, Object> getPipelineStats() {
+        return pipeline.getStats();
+    }
 
-                storeToFile(logEntry);
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        BatchingEventQueue.writeMetrics(writer, List.of(pipeline, securityJournal.getPipeline()));
+    }
 
+    private void writeBatch(List<LogEvent> batch) throws Exception {
+        for (LogEvent event : batch) {
+            try {
+                Map<String, Object> logEntry = createLogEntry(event);
+
+                logToConsole(event.level(), logEntry);
+
+                fileSink.write(objectMapper.writeValueAsBytes(logEntry));
+                fileSink.write(NEWLINE);
             } catch (Exception e) {
                 log.error("Failed to write log entry", e);
             }
-        });
+        }
+        fileSink.flush();
     }
 
-    private Map<String, Object> createLogEntry(String level, String service, String method, String message, Object data,
-            Exception exception) {
+    private Map<String, Object> createLogEntry(LogEvent event) {
         Map<String, Object> logEntry = new HashMap<>();
 
-        logEntry.put("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMAT));
-        logEntry.put("level", level);
-        logEntry.put("service", service);
-        logEntry.put("method", method);
-        logEntry.put("message", message);
-        logEntry.put("thread", Thread.currentThread().getName());
+        logEntry.put("timestamp", event.timestamp().format(TIMESTAMP_FORMAT));
+        logEntry.put("level", event.level());
+        logEntry.put("service", event.service());
+        logEntry.put("method", event.method());
+        logEntry.put("message", event.message());
+        logEntry.put("thread", event.thread());
+
+        if (event.traceId() != null) {
+            logEntry.put("traceId", event.traceId());
+        }
 
-        if (data != null) {
-            logEntry.put("data", data);
+        if (event.data() != null) {
+            logEntry.put("data", event.data());
         }
 
+        Exception exception = event.exception();
         if (exception != null) {
             Map<String, Object> errorDetails = new HashMap<>();
             errorDetails.put("exceptionClass", exception.getClass().getSimpleName());
@@ -106,29 +176,6 @@ public class LoggingService {
         }
     }
 
-    private void storeToFile(Map<String, Object> logEntry) {
-        try {
-            String today = LocalDateTime.now().format(FILE_DATE_FORMAT);
-            String fileName = LOG_DIR + "app-" + today + ".log";
-
-            java.io.File directory = new java.io.File(LOG_DIR);
-            if (!directory.exists()) {
-                boolean created = directory.mkdirs();
-                if (!created) {
-                    log.error("Failed to create log directory: {}", LOG_DIR);
-                    return;
-                }
-            }
-
-            try (FileWriter writer = new FileWriter(fileName, true)) {
-                writer.write(objectMapper.writeValueAsString(logEntry) + "\n");
-            }
-
-        } catch (IOException e) {
-            log.error("Failed to write to log file", e);
-        }
-    }
-
     private String getStackTrace(Exception exception) {
         java.io.StringWriter sw = new java.io.StringWriter();
         exception.printStackTrace(new java.io.PrintWriter(sw));
@@ -136,15 +183,15 @@ public class LoggingService {
     }
 
     public void logSecurityEvent(String event, String username, String sessionId, String details) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("username", username);
-        data.put("sessionId", sessionId);
-        data.put("details", details);
+        securityJournal.record(event, username, sessionId, details);
 
-        logEvent("SECURITY", "Security", event, String.format("Security event: %s for user %s", event, username), data,
-                null);
+        log.debug("Security event: {} for user {}", event, username);
     }
 
+    /**
+     * Server-generated id for a security event. Deliberately not the trace id, which a client can choose through
+     * {@code X-Trace-Id}; events are still correlated with the request through the trace id in the log MDC.
+     */
     public String getCurrentSessionId() {
         return UUID.randomUUID().toString().substring(0, 12);
     }
@@ -3,9 +3,10 @@ package com.twizzle.server.services;
 import com.twizzle.server.exceptions.CustomException;
 import com.twizzle.server.models.User;
 import com.twizzle.server.repositories.UserRepository;
+import com.twizzle.server.utils.BulkheadExecutor;
 import com.twizzle.server.utils.JwtTokenUtil;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,7 +18,6 @@ import java.util.concurrent.CompletableFuture;
 import static com.twizzle.server.models.Messages.INVALID_CREDENTIALS;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class LoginService {
 
@@ -25,6 +25,16 @@ public class LoginService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenUtil jwtTokenUtil;
     private final LoggingService loggingService;
+    private final BulkheadExecutor authExecutor;
+
+    public LoginService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtTokenUtil jwtTokenUtil,
+            LoggingService loggingService, @Qualifier("authExecutor") BulkheadExecutor authExecutor) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.loggingService = loggingService;
+        this.authExecutor = authExecutor;
+    }
 
     @Transactional
     public String login(String username, String password, String ipAddress) {
@@ -147,7 +157,7 @@ public class LoginService {
                 loggingService.logError("LoginService", "runPostLoginAsync", "Post-login error for user: " + username,
                         e);
             }
-        });
+        }, authExecutor);
     }
 
     private boolean ipChanged(String lastIp, String currentIp) {
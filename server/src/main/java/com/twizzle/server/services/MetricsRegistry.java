@@ -0,0 +1,41 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Collects every {@link MetricsSource} bean and renders them as a single OpenMetrics exposition. Sources are resolved
+ * lazily so that components which themselves depend on monitoring can still contribute metrics.
+ */
+@Service
+@Slf4j
+public class MetricsRegistry {
+
+    private final ObjectProvider<MetricsSource> sources;
+
+    public MetricsRegistry(ObjectProvider<MetricsSource> sources) {
+        this.sources = sources;
+    }
+
+    public void write(Writer out) throws IOException {
+        MetricsWriter writer = new MetricsWriter(out);
+        List<MetricsSource> resolved = sources.orderedStream().toList();
+        for (MetricsSource source : resolved) {
+            try {
+                source.writeMetrics(writer);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("Metrics source {} failed: {}", source.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        writer.finish();
+    }
+}
@@ -0,0 +1,103 @@
+package com.twizzle.server.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+
+/**
+ * UDP multicast transport for cache invalidations. Every node joins the same group and receives the others' messages
+ * on a daemon thread; loss is detected through the sequence numbers added by the base class.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "multicast")
+@Slf4j
+public class MulticastCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    private final MulticastSocket socket;
+    private final InetSocketAddress group;
+    private final Thread receiverThread;
+    private volatile boolean running = true;
+
+    public MulticastCacheInvalidationBus(@Value("${app.cache.invalidation.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.cache.invalidation.batch-size:256}") int batchSize,
+            @Value("${app.cache.invalidation.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${app.cache.invalidation.multicast.group:239.255.42.99}") String groupAddress,
+            @Value("${app.cache.invalidation.multicast.port:4446}") int port,
+            @Value("${app.cache.invalidation.multicast.interface:}") String interfaceName,
+            @Value("${app.cache.invalidation.multicast.ttl:1}") int timeToLive) throws IOException {
+        super("cache-invalidation", queueCapacity, batchSize, flushIntervalMs);
+
+        NetworkInterface networkInterface = resolveInterface(interfaceName);
+        this.group = new InetSocketAddress(InetAddress.getByName(groupAddress), port);
+        this.socket = new MulticastSocket(port);
+        this.socket.setTimeToLive(timeToLive);
+        this.socket.setNetworkInterface(networkInterface);
+        this.socket.joinGroup(group, networkInterface);
+
+        this.receiverThread = new Thread(this::receiveLoop, "cache-invalidation-receiver");
+        this.receiverThread.setDaemon(true);
+        this.receiverThread.start();
+
+        log.info("Cache invalidation multicast joined {}:{} on {}", groupAddress, port, networkInterface.getName());
+    }
+
+    /**
+     * The configured interface, or else the first one that is up, not loopback and multicast-capable. Joining with no
+     * interface would leave the choice to the OS default route, which need not be the network the other nodes are on.
+     */
+    private static NetworkInterface resolveInterface(String interfaceName) throws IOException {
+        if (!interfaceName.isBlank()) {
+            NetworkInterface configured = NetworkInterface.getByName(interfaceName);
+            if (configured == null) {
+                throw new IOException("Network interface '" + interfaceName
+                        + "' set in app.cache.invalidation.multicast.interface does not exist");
+            }
+            return configured;
+        }
+        for (NetworkInterface candidate : NetworkInterface.networkInterfaces().toList()) {
+            if (candidate.isUp() && !candidate.isLoopback() && !candidate.isVirtual()
+                    && candidate.supportsMulticast()) {
+                return candidate;
+            }
+        }
+        throw new IOException("No multicast-capable network interface found; "
+                + "set app.cache.invalidation.multicast.interface");
+    }
+
+    @Override
+    protected void send(byte[] message) throws IOException {
+        socket.send(new DatagramPacket(message, message.length, group));
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        running = false;
+        socket.close();
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[64 * 1024];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+
+        while (running) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                receive(packet.getData(), packet.getLength());
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Cache invalidation receive failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
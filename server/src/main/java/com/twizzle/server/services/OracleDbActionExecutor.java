@@ -0,0 +1,383 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.exceptions.CustomException;
+import com.twizzle.server.models.Post;
+import com.twizzle.server.utils.ConnectionTimings;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import com.twizzle.server.utils.StatementCacheStats;
+import com.twizzle.server.utils.VDataSource;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs actions through the Oracle PL/SQL package named by {@code app.database.package.name}: the request travels as
+ * JSON to {@code executeQuery}, which answers with a REF_CURSOR of JSON rows. Transient SQL errors are retried with
+ * exponential backoff; timing out while waiting for a connection is not, since that wait already used the caller's
+ * whole acquire timeout. A read that fails on the replica takes it out of rotation and is retried on the primary.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.database.executor", havingValue = "oracle", matchIfMissing = true)
+public class OracleDbActionExecutor implements DbActionExecutor, MetricsSource {
+
+    /**
+     * List actions fetch a page of rows per round trip; single-row lookups and counts fetch exactly one so the driver
+     * does not size buffers for rows that will never come. Overridable via {@code app.database.fetch-size.<ACTION>}.
+     */
+    private static final Map<String, Integer> DEFAULT_FETCH_SIZES = Map.ofEntries(
+            Map.entry("GET_ALL_POSTS_PAGED", 50), Map.entry("GET_ALL_SCHEDULED_POSTS_PAGED", 50),
+            Map.entry("GET_USER_POSTS", 50), Map.entry("GET_USER_LIKED_POSTS", 50),
+            Map.entry("GET_COMMENTS_BY_POST_ID", 50), Map.entry("GET_ALL_COMMUNITIES", 50),
+            Map.entry("GET_POST_BY_ID", 1), Map.entry("GET_COMMUNITY_BY_NAME", 1),
+            Map.entry("CHECK_USER_LIKED_POST", 1), Map.entry("GET_POST_LIKES_COUNT", 1),
+            Map.entry("GET_POST_COMMENTS_COUNT", 1), Map.entry("GET_USER_COUNT_FOR_COMMUNITY", 1));
+
+    private static final int MAX_RETRY_ATTEMPTS = 3;
+    private static final long BASE_RETRY_DELAY_MS = 100;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final VDataSource vDataSource;
+    private final LoggingService loggingService;
+    private final Environment environment;
+    private final ConnectionTimings connectionTimings = new ConnectionTimings();
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+    private final Map<String, Integer> fetchSizes = new HashMap<>();
+
+    @Value("${app.database.package.name}")
+    private String postPkgName;
+
+    /** Set once the deployed package's listing actions honour cursorTimestamp/cursorId. */
+    @Value("${app.database.package.keyset-paging:false}")
+    private boolean keysetPaging;
+
+    private String executeQueryCall;
+    private String createPostCall;
+    private String getImageCall;
+    private String executeBatchCall;
+
+    public OracleDbActionExecutor(VDataSource vDataSource, LoggingService loggingService, Environment environment) {
+        this.vDataSource = vDataSource;
+        this.loggingService = loggingService;
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    void init() {
+        executeQueryCall = "begin ?:=" + postPkgName + ".executeQuery(?); end;";
+        createPostCall = "begin ?:=" + postPkgName + ".create_post(?, ?, ?, ?, ?, ?); end;";
+        getImageCall = "begin ?:=" + postPkgName + ".get_post_image(?); end;";
+        // One round trip for a whole batch: the block calls executeQuery per element of a JSON array and fails, rolling
+        // the call back, on the first error row.
+        executeBatchCall = "declare requests json_array_t := json_array_t.parse(?); rows sys_refcursor;"
+                + " response clob; begin for i in 0 .. requests.get_size - 1 loop"
+                + " response := null; rows := " + postPkgName + ".executeQuery(requests.get(i).stringify);"
+                + " fetch rows into response; close rows;"
+                + " if lower(response) like '%error%' or instr(response, 'ORA-') > 0 then"
+                + " raise_application_error(-20001, dbms_lob.substr(response, 2000, 1)); end if;"
+                + " end loop; end;";
+
+        fetchSizes.putAll(DEFAULT_FETCH_SIZES);
+        Binder.get(environment).bind("app.database.fetch-size", Bindable.mapOf(String.class, Integer.class))
+                .ifBound(configured -> configured.forEach(
+                        (action, size) -> fetchSizes.put(action.toUpperCase().replace('-', '_'), size)));
+        log.info("Per-action fetch sizes: {}", fetchSizes);
+    }
+
+    @Override
+    public boolean supportsKeysetPaging() {
+        return keysetPaging;
+    }
+
+    @Override
+    public List<Map<String, Object>> execute(String action, Object requestBody) throws IOException, CustomException {
+        return execute(action, requestBody, false);
+    }
+
+    @Override
+    public List<Map<String, Object>> executeOnPrimary(String action, Object requestBody)
+            throws IOException, CustomException {
+        return execute(action, requestBody, true);
+    }
+
+    private List<Map<String, Object>> execute(String action, Object requestBody, boolean primaryOnly)
+            throws IOException, CustomException {
+        boolean primary = primaryOnly;
+        List<Map<String, Object>> response;
+        String jsonRequest = getCachedJsonString(requestBody);
+
+        int attempt = 0;
+        SQLException lastException = null;
+
+        while (true) {
+            boolean onReplica = false;
+            try (Connection conn = getConnection(action, connectionClass(action), primary)) {
+                onReplica = VDataSource.isReplica(conn);
+                log.debug("DB Request - JSON: {} (Attempt: {})", jsonRequest, attempt + 1);
+
+                try (CallableStatement callableStatement = prepareCall(conn, executeQueryCall)) {
+                    callableStatement.setString(2, jsonRequest);
+                    callableStatement.setQueryTimeout(30);
+                    int fetchSize = fetchSizeFor(action);
+                    if (fetchSize > 0) {
+                        callableStatement.setFetchSize(fetchSize);
+                    }
+                    callableStatement.execute();
+
+                    try (ResultSet resultSet = (ResultSet) callableStatement.getObject(1)) {
+                        if (fetchSize > 0) {
+                            // REF_CURSOR rows are fetched on the cursor's own result set, so the hint goes there too.
+                            resultSet.setFetchSize(fetchSize);
+                        }
+                        response = processResultSet(resultSet);
+                        break;
+                    }
+                }
+            } catch (SQLTransientConnectionException e) {
+                // Budget, gate or pool timeout: retrying would multiply the wait under the load that caused it.
+                throw new CustomException(503, "No database connection available: " + e.getMessage());
+            } catch (SQLException e) {
+                lastException = e;
+                attempt++;
+
+                // A replica that is restarting, applying redo or refusing reads fails every read sent to it; asking
+                // for a READ connection again would land on it again.
+                boolean failover = onReplica && !(e instanceof SQLTransientException);
+                if (failover) {
+                    vDataSource.markReplicaFailed(e);
+                    primary = true;
+                }
+
+                if (failover && attempt < MAX_RETRY_ATTEMPTS) {
+                    // Another server: no reason to back off before trying it.
+                    log.warn("Database query failed on the read replica (attempt {}/{}), retrying on the primary: {}",
+                            attempt, MAX_RETRY_ATTEMPTS, e.getMessage());
+                } else if (attempt < MAX_RETRY_ATTEMPTS) {
+                    long delayMs = BASE_RETRY_DELAY_MS * (1L << attempt);
+                    log.warn("Database query failed (attempt {}/{}), retrying in {}ms: {}", attempt, MAX_RETRY_ATTEMPTS,
+                            delayMs, e.getMessage());
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(delayMs);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw new CustomException(500, "Query interrupted: " + ie.getMessage());
+                    }
+                } else {
+                    log.error("All database retry attempts failed", e);
+                    throw new CustomException(500,
+                            "Database operation failed after " + MAX_RETRY_ATTEMPTS + " attempts: " + e.getMessage());
+                }
+            }
+        }
+
+        if (response.isEmpty() && lastException != null) {
+            throw new CustomException(500, "Database operation failed: " + lastException.getMessage());
+        }
+
+        return response;
+    }
+
+    /**
+     * Sends the whole batch as one JSON array to a block that runs it through the package, so a batch costs one
+     * connection and one round trip. Not retried: callers of batches re-check state before trying again.
+     */
+    @Override
+    public void executeBatch(String action, List<? extends Map<String, Object>> requestBodies)
+            throws IOException, CustomException {
+        if (requestBodies.isEmpty()) {
+            return;
+        }
+        String jsonRequests = objectMapper.writeValueAsString(requestBodies);
+        try (Connection conn = getConnection(action, connectionClass(action))) {
+            statementCacheStats.verify(conn);
+            try (CallableStatement call = conn.prepareCall(executeBatchCall)) {
+                statementCacheStats.record(call);
+                call.setString(1, jsonRequests);
+                call.setQueryTimeout(30);
+                call.execute();
+            }
+        } catch (SQLException e) {
+            throw new CustomException(500, "Database batch of " + requestBodies.size() + " " + action
+                    + " requests failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prepares one of the precomputed package calls with its REF_CURSOR out parameter registered. The SQL text is
+     * identical on every call, so the driver's implicit statement cache can hand back an already parsed statement;
+     * whether it did is recorded for the hit-rate metric.
+     */
+    private CallableStatement prepareCall(Connection conn, String sql) throws SQLException {
+        statementCacheStats.verify(conn);
+        CallableStatement call = conn.prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statementCacheStats.record(call);
+        call.registerOutParameter(1, Types.REF_CURSOR);
+        return call;
+    }
+
+    @Override
+    public List<Map<String, Object>> createPostWithImage(Post post) throws SQLException {
+        List<Map<String, Object>> response = new ArrayList<>();
+
+        try (Connection conn = getConnection("create_post", VDataSource.ActionClass.LOB)) {
+            try (CallableStatement call = prepareCall(conn, createPostCall)) {
+                call.setString(2, post.getContent());
+                call.setString(3, post.getAuthorId());
+                call.setString(4, post.getAuthorName());
+
+                if (post.getImageData() != null) {
+                    call.setBytes(5, post.getImageData());
+                } else {
+                    call.setNull(5, Types.BLOB);
+                }
+                call.setString(6, post.getImageFilename());
+                call.setString(7, post.getImageContentType());
+
+                call.execute();
+
+                try (ResultSet resultSet = (ResultSet) call.getObject(1)) {
+                    resultSet.setFetchSize(1);
+                    while (resultSet.next()) {
+                        String jsonResponse = resultSet.getString("response_text");
+
+                        if (jsonResponse != null && (jsonResponse.startsWith("Database error")
+                                || jsonResponse.startsWith("Routing error") || jsonResponse.contains("error"))) {
+                            throw new CustomException(500, "Database operation failed: " + jsonResponse);
+                        }
+
+                        try {
+                            Map<String, Object> responseMap = objectMapper.readValue(jsonResponse,
+                                    new TypeReference<>() {
+                                    });
+                            response.add(responseMap);
+                        } catch (Exception e) {
+                            Map<String, Object> rawResponse = new HashMap<>();
+                            rawResponse.put("message", jsonResponse);
+                            response.add(rawResponse);
+                        }
+                    }
+                }
+            }
+        }
+
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getPostImageData(Long postId) throws SQLException {
+        try (Connection conn = getConnection("get_post_image", VDataSource.ActionClass.LOB);
+                CallableStatement call = prepareCall(conn, getImageCall)) {
+
+            call.setLong(2, postId);
+
+            call.execute();
+
+            try (ResultSet resultSet = (ResultSet) call.getObject(1)) {
+                resultSet.setFetchSize(1);
+                if (resultSet.next()) {
+                    Map<String, Object> imageData = new HashMap<>();
+                    imageData.put("IMAGE_DATA", resultSet.getBlob("IMAGE_DATA"));
+                    imageData.put("IMAGE_FILENAME", resultSet.getString("IMAGE_FILENAME"));
+                    imageData.put("IMAGE_CONTENT_TYPE", resultSet.getString("IMAGE_CONTENT_TYPE"));
+                    return imageData;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Borrows a connection within the action class's acquire timeout. Auto-commit and isolation are set once per
+     * physical connection by the pool, not on every borrow.
+     */
+    private Connection getConnection(String action, VDataSource.ActionClass actionClass) throws SQLException {
+        return getConnection(action, actionClass, false);
+    }
+
+    private Connection getConnection(String action, VDataSource.ActionClass actionClass, boolean primary)
+            throws SQLException {
+        long start = System.nanoTime();
+        return connectionTimings.track(action, start,
+                primary ? vDataSource.getPrimaryConnection(actionClass) : vDataSource.getConnection(actionClass));
+    }
+
+    /**
+     * Rows to fetch per round trip for {@code action}'s cursor, or 0 to keep the driver's default row prefetch.
+     */
+    private int fetchSizeFor(String action) {
+        return fetchSizes.getOrDefault(action.toUpperCase(), 0);
+    }
+
+    private static VDataSource.ActionClass connectionClass(String action) {
+        return DBService.isCacheableRead(action) ? VDataSource.ActionClass.READ : VDataSource.ActionClass.WRITE;
+    }
+
+    private String getCachedJsonString(Object requestBody) throws IOException {
+        return objectMapper.writeValueAsString(requestBody);
+    }
+
+    List<Map<String, Object>> processResultSet(ResultSet resultSet) throws SQLException, CustomException {
+        List<Map<String, Object>> response = new ArrayList<>();
+
+        while (resultSet.next()) {
+            String jsonResponse = resultSet.getString("response_text");
+
+            if (isErrorResponse(jsonResponse)) {
+                log.error("DB Error - Response: {}", jsonResponse);
+
+                Exception dbException = new SQLException("Database operation failed: " + jsonResponse);
+                loggingService.logError("DbService", "executeQuery", "Database operation failed", dbException);
+
+                throw new CustomException(500, "Database operation failed: " + jsonResponse);
+            }
+
+            try {
+                Map<String, Object> responseMap = objectMapper.readValue(jsonResponse, new TypeReference<>() {
+                });
+                response.add(responseMap);
+            } catch (Exception e) {
+                log.debug("Non-JSON response: {}", jsonResponse);
+                Map<String, Object> rawResponse = new HashMap<>();
+                rawResponse.put("message", jsonResponse);
+                response.add(rawResponse);
+            }
+        }
+
+        return response;
+    }
+
+    private boolean isErrorResponse(String jsonResponse) {
+        return jsonResponse != null
+                && (jsonResponse.startsWith("Database error") || jsonResponse.startsWith("Routing error")
+                        || jsonResponse.contains("ORA-") || jsonResponse.toLowerCase().contains("error"));
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        statementCacheStats.writeMetrics(writer);
+        connectionTimings.writeMetrics(writer, "twizzle_db_connection_phase_seconds",
+                "Connection acquire, use and return time per action");
+    }
+}
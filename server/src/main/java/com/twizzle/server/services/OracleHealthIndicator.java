@@ -1,6 +1,7 @@
 package com.twizzle.server.services;
 
 import com.twizzle.server.utils.VDataSource;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -20,12 +21,15 @@ public class OracleHealthIndicator implements HealthIndicator {
 
     private final VDataSource dataSource;
 
-    public OracleHealthIndicator(VDataSource dataSource) {
-        this.dataSource = dataSource;
+    public OracleHealthIndicator(ObjectProvider<VDataSource> dataSource) {
+        this.dataSource = dataSource.getIfAvailable();
     }
 
     @Override
     public Health health() {
+        if (dataSource == null) {
+            return Health.up().withDetail("database", "in-memory").withDetail("timestamp", Instant.now()).build();
+        }
         try (Connection connection = dataSource.getConnection()) {
             try (PreparedStatement stmt = connection.prepareStatement(healthQuery)) {
                 ResultSet rs = stmt.executeQuery();
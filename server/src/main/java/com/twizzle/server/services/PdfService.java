@@ -1,8 +1,11 @@
 package com.twizzle.server.services;
 
 import com.itextpdf.html2pdf.HtmlConverter;
+import com.twizzle.server.exceptions.CustomException;
 import com.twizzle.server.models.*;
+import com.twizzle.server.utils.BulkheadExecutor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
@@ -14,19 +17,29 @@ import java.util.List;
 @Service
 public class PdfService {
 
+    private final BulkheadExecutor reportsExecutor;
+
+    public PdfService(@Qualifier("reportsExecutor") BulkheadExecutor reportsExecutor) {
+        this.reportsExecutor = reportsExecutor;
+    }
+
     public byte[] generateUserProfilePdf(User user) throws IOException {
         try {
-            String htmlContent = generateHtmlTemplate(user);
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            HtmlConverter.convertToPdf(htmlContent, outputStream);
-            return outputStream.toByteArray();
+            return reportsExecutor.call(() -> {
+                String htmlContent = generateHtmlTemplate(user);
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                HtmlConverter.convertToPdf(htmlContent, outputStream);
+                return outputStream.toByteArray();
+            });
+        } catch (CustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error generating PDF for user {}: {}", user.getId(), e.getMessage());
             throw new IOException("Failed to generate PDF", e);
         }
     }
 
-    private String generateHtmlTemplate(User user) {
+    String generateHtmlTemplate(User user) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
 
         StringBuilder html = new StringBuilder();
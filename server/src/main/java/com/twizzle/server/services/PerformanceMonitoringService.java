@@ -1,8 +1,14 @@
 package com.twizzle.server.services;
 
+import com.twizzle.server.utils.LatencyHistogram;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import com.twizzle.server.utils.RollingLatencyWindow;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.ThreadMXBean;
@@ -10,45 +16,111 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @Slf4j
-public class PerformanceMonitoringService {
+public class PerformanceMonitoringService implements MetricsSource {
 
-    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> totalResponseTimes = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> errorCounts = new ConcurrentHashMap<>();
-    private final Map<String, Long> slowestRequests = new ConcurrentHashMap<>();
+    private static final int WINDOW_SLICES = 15;
+    private static final long SLOW_REQUEST_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final String OVERFLOW_ENDPOINT = "OTHER";
 
-    private final AtomicLong totalRequests = new AtomicLong(0);
-    private final AtomicLong totalErrors = new AtomicLong(0);
+    private final Map<String, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> methodTimings = new ConcurrentHashMap<>();
+    private final EndpointMetrics overall = new EndpointMetrics();
     private final LocalDateTime startupTime = LocalDateTime.now();
 
-    public void recordRequest(String endpoint, long responseTimeMs) {
-        requestCounts.computeIfAbsent(endpoint, k -> new AtomicLong(0)).incrementAndGet();
-        totalResponseTimes.computeIfAbsent(endpoint, k -> new AtomicLong(0)).addAndGet(responseTimeMs);
-        totalRequests.incrementAndGet();
+    @Value("${monitoring.endpoints.max-tracked:500}")
+    private int maxTrackedEndpoints;
 
-        slowestRequests.merge(endpoint, responseTimeMs, Long::max);
+    @Value("${monitoring.health.window-minutes:5}")
+    private int healthWindowMinutes;
 
-        if (responseTimeMs > 2000) {
-            log.warn("Slow request detected: {} took {}ms", endpoint, responseTimeMs);
+    @Value("${monitoring.health.error-rate-threshold:5.0}")
+    private double healthErrorRateThreshold;
+
+    @Value("${monitoring.health.min-requests:20}")
+    private long healthMinRequests;
+
+    public void recordRequest(String endpoint, long durationNanos, boolean error) {
+        metricsFor(endpoint).record(durationNanos, error);
+        overall.record(durationNanos, error);
+
+        if (durationNanos > SLOW_REQUEST_NANOS) {
+            log.warn("Slow request detected: {} took {}ms", endpoint, TimeUnit.NANOSECONDS.toMillis(durationNanos));
         }
     }
 
-    public void recordError(String endpoint) {
-        errorCounts.computeIfAbsent(endpoint, k -> new AtomicLong(0)).incrementAndGet();
-        totalErrors.incrementAndGet();
+    private EndpointMetrics metricsFor(String endpoint) {
+        EndpointMetrics metrics = endpointMetrics.get(endpoint);
+        if (metrics != null) {
+            return metrics;
+        }
+        // Hard cap on distinct keys so an unexpected source of path variety cannot grow the map without bound.
+        String key = endpointMetrics.size() < maxTrackedEndpoints ? endpoint : OVERFLOW_ENDPOINT;
+        return endpointMetrics.computeIfAbsent(key, k -> new EndpointMetrics());
+    }
+
+    public void recordMethodTiming(String method, long durationNanos) {
+        methodTimings.computeIfAbsent(method, k -> new LatencyHistogram()).record(durationNanos);
+    }
+
+    public Map<String, Object> getMethodStats() {
+        Map<String, Object> stats = new HashMap<>();
+
+        methodTimings.forEach((method, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+            Map<String, Object> methodStats = new HashMap<>();
+            methodStats.put("calls", snapshot.count());
+            methodStats.put("meanMs", snapshot.meanMillis());
+            methodStats.put("p50Ms", snapshot.percentileMillis(50));
+            methodStats.put("p99Ms", snapshot.percentileMillis(99));
+            methodStats.put("maxMs", snapshot.maxMillis());
+            stats.put(method, methodStats);
+        });
+
+        return stats;
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        writer.counter("twizzle_http_requests", "HTTP requests by route");
+        for (Map.Entry<String, EndpointMetrics> entry : endpointMetrics.entrySet()) {
+            writer.total("twizzle_http_requests", entry.getValue().requests.sum(), "endpoint", entry.getKey());
+        }
+
+        writer.counter("twizzle_http_errors", "HTTP responses with status 400 or above by route");
+        for (Map.Entry<String, EndpointMetrics> entry : endpointMetrics.entrySet()) {
+            writer.total("twizzle_http_errors", entry.getValue().errors.sum(), "endpoint", entry.getKey());
+        }
+
+        writer.summary("twizzle_http_request_duration_seconds",
+                "HTTP request latency by route; quantiles over the last " + healthWindowMinutes + " minutes");
+        for (Map.Entry<String, EndpointMetrics> entry : endpointMetrics.entrySet()) {
+            EndpointMetrics metrics = entry.getValue();
+            writer.latency("twizzle_http_request_duration_seconds",
+                    metrics.window.snapshot(healthWindowMinutes).latency(), metrics.requests.sum(),
+                    metrics.totalNanos.sum(), "endpoint", entry.getKey());
+        }
+
+        writer.summary("twizzle_method_duration_seconds", "Service and controller method latency since start");
+        for (Map.Entry<String, LatencyHistogram> entry : methodTimings.entrySet()) {
+            writer.latency("twizzle_method_duration_seconds", entry.getValue().snapshot(), "method", entry.getKey());
+        }
     }
 
     public Map<String, Object> getPerformanceStats() {
         Map<String, Object> stats = new HashMap<>();
 
         stats.put("uptime", getUptimeInfo());
-        stats.put("totalRequests", totalRequests.get());
-        stats.put("totalErrors", totalErrors.get());
-        stats.put("errorRate", calculateOverallErrorRate());
+        stats.put("totalRequests", overall.requests.sum());
+        stats.put("totalErrors", overall.errors.sum());
+        stats.put("errorRate", overall.lifetimeErrorRate());
+        stats.put("windows", overall.windowStats());
 
         stats.put("systemMetrics", getSystemMetrics());
 
@@ -60,29 +132,26 @@ public class PerformanceMonitoringService {
     }
 
     public Map<String, Object> getEndpointStats(String endpoint) {
-        Map<String, Object> stats = new HashMap<>();
-
-        long requests = requestCounts.getOrDefault(endpoint, new AtomicLong(0)).get();
-        long totalTime = totalResponseTimes.getOrDefault(endpoint, new AtomicLong(0)).get();
-        long errors = errorCounts.getOrDefault(endpoint, new AtomicLong(0)).get();
+        EndpointMetrics metrics = endpointMetrics.getOrDefault(endpoint, EndpointMetrics.EMPTY);
+        long requests = metrics.requests.sum();
 
+        Map<String, Object> stats = new HashMap<>();
         stats.put("endpoint", endpoint);
         stats.put("totalRequests", requests);
-        stats.put("totalErrors", errors);
-        stats.put("errorRate", requests > 0 ? (double) errors / requests * 100 : 0.0);
-        stats.put("averageResponseTime", requests > 0 ? totalTime / requests : 0);
-        stats.put("slowestRequest", slowestRequests.getOrDefault(endpoint, 0L));
+        stats.put("totalErrors", metrics.errors.sum());
+        stats.put("errorRate", metrics.lifetimeErrorRate());
+        stats.put("averageResponseTime",
+                requests > 0 ? TimeUnit.NANOSECONDS.toMillis(metrics.totalNanos.sum() / requests) : 0);
+        stats.put("slowestRequest", TimeUnit.NANOSECONDS.toMillis(metrics.maxNanos.get()));
+        stats.put("windows", metrics.windowStats());
 
         return stats;
     }
 
     public void resetMetrics() {
-        requestCounts.clear();
-        totalResponseTimes.clear();
-        errorCounts.clear();
-        slowestRequests.clear();
-        totalRequests.set(0);
-        totalErrors.set(0);
+        endpointMetrics.clear();
+        methodTimings.clear();
+        overall.reset();
 
         log.info("Performance metrics have been reset");
     }
@@ -117,29 +186,33 @@ public class PerformanceMonitoringService {
     private Map<String, Object> getEndpointStats() {
         Map<String, Object> endpointStats = new HashMap<>();
 
-        requestCounts.forEach((endpoint, count) -> endpointStats.put(endpoint, getEndpointStats(endpoint)));
+        endpointMetrics.keySet().forEach(endpoint -> endpointStats.put(endpoint, getEndpointStats(endpoint)));
 
         return endpointStats;
     }
 
     private Map<String, Long> getSlowestEndpoints() {
-        return new HashMap<>(slowestRequests);
-    }
-
-    private double calculateOverallErrorRate() {
-        long total = totalRequests.get();
-        return total > 0 ? (double) totalErrors.get() / total * 100 : 0.0;
+        Map<String, Long> slowest = new HashMap<>();
+        endpointMetrics.forEach(
+                (endpoint, metrics) -> slowest.put(endpoint, TimeUnit.NANOSECONDS.toMillis(metrics.maxNanos.get())));
+        return slowest;
     }
 
     public Map<String, Object> getHealthStatus() {
         Map<String, Object> health = new HashMap<>();
 
-        double errorRate = calculateOverallErrorRate();
-        boolean isHealthy = errorRate < 5.0;
+        // Judge health on the recent window only; a burst of errors hours ago must not keep the service DOWN and a
+        // handful of requests is not enough evidence either way.
+        RollingLatencyWindow.Window window = overall.window.snapshot(healthWindowMinutes);
+        double errorRate = window.errorRate();
+        boolean isHealthy = window.requests() < healthMinRequests || errorRate < healthErrorRateThreshold;
 
         health.put("status", isHealthy ? "UP" : "DOWN");
         health.put("errorRate", errorRate);
-        health.put("totalRequests", totalRequests.get());
+        health.put("windowMinutes", healthWindowMinutes);
+        health.put("windowRequests", window.requests());
+        health.put("windowP99Ms", window.latency().percentileMillis(99));
+        health.put("totalRequests", overall.requests.sum());
         health.put("uptime", "Since " + startupTime);
 
         MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
@@ -151,4 +224,59 @@ public class PerformanceMonitoringService {
 
         return health;
     }
+
+    /**
+     * Lifetime counters plus a rolling per-minute window for one endpoint. All updates are lock-free.
+     */
+    private static final class EndpointMetrics {
+
+        private static final EndpointMetrics EMPTY = new EndpointMetrics();
+        private static final int[] WINDOWS = {1, 5, 15};
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final RollingLatencyWindow window = new RollingLatencyWindow(WINDOW_SLICES, 1, TimeUnit.MINUTES);
+
+        private void record(long durationNanos, boolean error) {
+            requests.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            if (error) {
+                errors.increment();
+            }
+            window.record(durationNanos, error);
+        }
+
+        private double lifetimeErrorRate() {
+            long total = requests.sum();
+            return total > 0 ? (double) errors.sum() / total * 100 : 0.0;
+        }
+
+        private Map<String, Object> windowStats() {
+            Map<String, Object> windows = new HashMap<>();
+            for (int minutes : WINDOWS) {
+                RollingLatencyWindow.Window snapshot = window.snapshot(minutes);
+
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("requests", snapshot.requests());
+                stats.put("errors", snapshot.errors());
+                stats.put("errorRate", snapshot.errorRate());
+                stats.put("p50Ms", snapshot.latency().percentileMillis(50));
+                stats.put("p99Ms", snapshot.latency().percentileMillis(99));
+                stats.put("maxMs", snapshot.latency().maxMillis());
+                windows.put(minutes + "m", stats);
+            }
+            return windows;
+        }
+
+        private void reset() {
+            requests.reset();
+            errors.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            window.reset();
+        }
+    }
 }
@@ -0,0 +1,210 @@
+package com.twizzle.server.services;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.twizzle.server.utils.MetricsSource;
+import com.twizzle.server.utils.MetricsWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Who liked a post, as a compressed bitmap of user ids per post, so "has this user liked it" is answered without a
+ * database call. Bitmaps are loaded on first use from the post row ({@code likedUserIds}) or seeded from post rows the
+ * caller already has, and evicted least recently used by the {@code post-likers} cache spec.
+ *
+ * <p>
+ * The bitmaps hold the stored state; likes not yet written behind are overlaid by {@link EngagementCounterService},
+ * which also updates them after each flushed write. User ids that are not ints cannot be held, and posts whose rows
+ * carry no {@code likedUserIds} cannot be loaded; both are answered with {@code null}, meaning "ask the database".
+ */
+@Service
+@Slf4j
+public class PostLikersCache implements MetricsSource {
+
+    static final String CACHE_NAME = "post-likers";
+
+    private final DBService dbService;
+    private final CacheManager cacheManager;
+
+    public PostLikersCache(DBService dbService, CacheManager cacheManager) {
+        this.dbService = dbService;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Whether the user likes the post according to the database, or {@code null} when that is not known here.
+     */
+    public Boolean hasLiked(long postId, String userId) {
+        Integer id = bitmapId(userId);
+        if (id == null) {
+            return null;
+        }
+        Likers likers = load(postId);
+        return likers != null ? likers.contains(id) : null;
+    }
+
+    /**
+     * Like states of one user for a page of post rows, loading a post's bitmap from its row when it is not cached
+     * yet. Posts that cannot be answered here are left out.
+     */
+    public Map<Long, Boolean> likedBy(String userId, List<Map<String, Object>> postRows) {
+        Map<Long, Boolean> liked = new HashMap<>();
+        Integer id = bitmapId(userId);
+        if (id == null) {
+            return liked;
+        }
+        for (Map<String, Object> row : postRows) {
+            Long postId = postIdOf(row);
+            if (postId == null) {
+                continue;
+            }
+            Likers likers = cache().getIfPresent(postId);
+            if (likers == null && row.get("likedUserIds") instanceof List<?> userIds) {
+                likers = cache().asMap().computeIfAbsent(postId, key -> Likers.of(userIds));
+            }
+            if (likers != null) {
+                liked.put(postId, likers.contains(id));
+            }
+        }
+        return liked;
+    }
+
+    /**
+     * Records a like or unlike that has just been written to the database.
+     */
+    public void update(long postId, String userId, boolean liked) {
+        Integer id = bitmapId(userId);
+        if (id == null) {
+            return;
+        }
+        // Waits for a load in progress, which may have read the row before the write.
+        cache().asMap().computeIfPresent(postId, (key, likers) -> {
+            likers.set(id, liked);
+            return likers;
+        });
+    }
+
+    /**
+     * Drops the post's bitmap on the other nodes, whose copy is now behind this node's writes.
+     */
+    public void publishChange(long postId) {
+        cacheManager.invalidatePeers(CACHE_NAME, postId);
+    }
+
+    public void evict(long postId) {
+        cacheManager.invalidate(CACHE_NAME, postId);
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        long bytes = 0;
+        long likes = 0;
+        for (Likers likers : cache().asMap().values()) {
+            bytes += likers.sizeInBytes();
+            likes += likers.cardinality();
+        }
+        writer.gauge("twizzle_post_likers_bytes", "Serialized size of the cached liker bitmaps");
+        writer.sample("twizzle_post_likers_bytes", bytes);
+
+        writer.gauge("twizzle_post_likers_likes", "Likes held in the cached liker bitmaps");
+        writer.sample("twizzle_post_likers_likes", likes);
+    }
+
+    private Likers load(long postId) {
+        try {
+            return cache().get(postId);
+        } catch (RuntimeException e) {
+            log.debug("Could not load likers of post {}: {}", postId, e.getMessage());
+            return null;
+        }
+    }
+
+    private LoadingCache<Long, Likers> cache() {
+        return cacheManager.getLoadingCache(CACHE_NAME, this::fetch);
+    }
+
+    private Likers fetch(Long postId) throws IOException {
+        Map<String, Object> request = new HashMap<>();
+        request.put("action", "GET_POST_BY_ID");
+        request.put("postId", postId);
+        // From the primary: flushed likes are applied on top of the loaded bitmap, so it must not predate them.
+        List<Map<String, Object>> result = dbService.executeUncached(request);
+        // A missing post or an explicit empty list is a known empty bitmap, cached like any other. A row without the
+        // field comes from a backend that does not report likers: nothing is cached and callers ask the database.
+        if (result.isEmpty()) {
+            return Likers.of(List.of());
+        }
+        return result.get(0).get("likedUserIds") instanceof List<?> userIds ? Likers.of(userIds) : null;
+    }
+
+    /**
+     * Id of a post row, whichever of {@code postId} or {@code id} it uses; {@code null} if it has neither.
+     */
+    public static Long postIdOf(Map<String, Object> row) {
+        Object value = row.containsKey("postId") ? row.get("postId") : row.get("id");
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return value != null ? Long.parseLong(value.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer bitmapId(Object userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            long id = userId instanceof Number number ? number.longValue() : Long.parseLong(userId.toString().trim());
+            return id >= 0 && id <= Integer.MAX_VALUE ? (int) id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One post's likers. RoaringBitmap is not thread-safe, so reads and writes are serialised per post.
+     */
+    private static final class Likers {
+        private final RoaringBitmap bitmap = new RoaringBitmap();
+
+        static Likers of(List<?> userIds) {
+            Likers likers = new Likers();
+            for (Object userId : userIds) {
+                Integer id = bitmapId(userId);
+                if (id != null) {
+                    likers.bitmap.add(id);
+                }
+            }
+            likers.bitmap.runOptimize();
+            return likers;
+        }
+
+        synchronized boolean contains(int userId) {
+            return bitmap.contains(userId);
+        }
+
+        synchronized void set(int userId, boolean liked) {
+            if (liked) {
+                bitmap.add(userId);
+            } else {
+                bitmap.remove(userId);
+            }
+        }
+
+        synchronized long sizeInBytes() {
+            return bitmap.getLongSizeInBytes();
+        }
+
+        synchronized long cardinality() {
+            return bitmap.getLongCardinality();
+        }
+    }
+}
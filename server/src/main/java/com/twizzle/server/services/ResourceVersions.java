@@ -0,0 +1,95 @@
+package com.twizzle.server.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change sequences for resources clients poll, so that "has this changed since I last looked" is answered without
+ * reading it. Writes call {@link #changed}, which is broadcast like a cache invalidation so every node bumps its own
+ * sequence; user changes are picked up from the existing {@code users-by-id} invalidations.
+ *
+ * <p>
+ * An ETag combines the sequence with a per-process id, so tags from another node or an earlier run never match, and
+ * with a time bucket of {@code app.http.etag.max-age-seconds}, which bounds how long a write made outside this
+ * application (and so never announced) can go unnoticed, as the cache TTLs do.
+ */
+@Service
+@Slf4j
+public class ResourceVersions {
+
+    public static final String POSTS = "posts";
+    public static final String COMMUNITIES = "communities";
+
+    /** Pseudo-cache whose invalidations carry resource names between nodes; nothing is ever stored under it. */
+    static final String CHANNEL = "resource-versions";
+
+    private final CacheManager cacheManager;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final String processId = Long.toHexString(new SecureRandom().nextLong());
+
+    @Value("${app.http.etag.max-age-seconds:30}")
+    private long maxAgeSeconds;
+
+    public ResourceVersions(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        cacheManager.onInvalidate(CHANNEL, key -> bump(key != null ? key.toString() : null));
+        cacheManager.onInvalidate(UserService.USERS_BY_ID, key -> bump(key instanceof Long id ? user(id) : null));
+    }
+
+    public static String user(long userId) {
+        return "user:" + userId;
+    }
+
+    /**
+     * Database action names map to the collection they modify; everything that is not a community touches the feed
+     * (posts, likes, comments, scheduled posts).
+     */
+    public static String resourceOf(String action) {
+        return action.toUpperCase().contains("COMMUNIT") ? COMMUNITIES : POSTS;
+    }
+
+    /**
+     * Announces a change to {@code resource} here and on every other node.
+     */
+    public void changed(String resource) {
+        cacheManager.invalidate(CHANNEL, resource);
+    }
+
+    /**
+     * Announces a change to state only this node holds, such as likes not yet written behind.
+     */
+    public void changedHere(String resource) {
+        bump(resource);
+    }
+
+    /**
+     * Strong ETag for the current state of {@code resource}. Read it before reading the resource: a write in between
+     * then yields a newer tag than the one sent, never a stale match.
+     */
+    public String etag(String resource) {
+        long sequence = versions.computeIfAbsent(resource, key -> new AtomicLong()).get();
+        long bucket = System.currentTimeMillis() / 1000 / Math.max(1, maxAgeSeconds);
+        return "\"" + processId + "-" + generation.get() + "-" + sequence + "-" + Long.toHexString(bucket) + "\"";
+    }
+
+    private void bump(String resource) {
+        if (resource == null) {
+            // Whole cache cleared, or invalidations were lost: nothing can be trusted to be unchanged.
+            generation.incrementAndGet();
+            return;
+        }
+        versions.computeIfAbsent(resource, key -> new AtomicLong()).incrementAndGet();
+    }
+}
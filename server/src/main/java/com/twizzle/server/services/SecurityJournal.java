@@ -0,0 +1,411 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.models.SecurityEvent;
+import com.twizzle.server.utils.BatchingEventQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only binary journal of security events. Records are written in fixed-schema binary form into size- and
+ * day-bounded segment files; every segment keeps an in-memory time range plus per-user and per-event-type record
+ * offsets, so a query only touches the segments and records that can match.
+ */
+@Service
+@Slf4j
+public class SecurityJournal {
+
+    private static final String JOURNAL_DIR = "server/logs/security/";
+    private static final String SEGMENT_PREFIX = "security-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_DETAILS_LENGTH = 4000;
+    /** Cap for event type, username and session id; keeps every record well inside writeUTF's 64 KB limit. */
+    private static final int MAX_FIELD_LENGTH = 256;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    @Value("${security.journal.segment-max-bytes:16777216}")
+    private long segmentMaxBytes;
+
+    @Value("${security.journal.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${security.journal.queue-capacity:4096}")
+    private int queueCapacity;
+
+    private final Path directory = Paths.get(JOURNAL_DIR);
+    private final List<Segment> segments = new ArrayList<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private BatchingEventQueue<SecurityEvent> pipeline;
+
+    // Writer-thread state
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(512);
+    private final List<PendingEntry> pending = new ArrayList<>();
+    private Segment activeSegment;
+    private LocalDate activeDay;
+    private OutputStream out;
+
+    private record PendingEntry(Segment segment, int offset, long timestamp, String eventType, String username) {
+    }
+
+    @PostConstruct
+    public void init() {
+        loadExistingSegments();
+        pipeline = new BatchingEventQueue<>("security-journal", queueCapacity, 256, 500,
+                BatchingEventQueue.OverflowPolicy.BLOCK, 50, new BatchingEventQueue.BatchHandler<>() {
+                    @Override
+                    public void onBatch(List<SecurityEvent> batch) throws IOException {
+                        appendBatch(batch);
+                    }
+
+                    @Override
+                    public void onClose() throws IOException {
+                        closeActiveSegment();
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pipeline.close();
+    }
+
+    public void record(String eventType, String username, String sessionId, String details) {
+        // Bounded here rather than only when encoding, so the segment index holds what the record holds.
+        pipeline.offer(new SecurityEvent(System.currentTimeMillis(), bounded(eventType, MAX_FIELD_LENGTH),
+                bounded(username, MAX_FIELD_LENGTH), bounded(sessionId, MAX_FIELD_LENGTH),
+                bounded(details, MAX_DETAILS_LENGTH)));
+    }
+
+    public List<SecurityEvent> query(Long fromMillis, Long toMillis, String username, String eventType, int limit) {
+        long from = fromMillis != null ? fromMillis : Long.MIN_VALUE;
+        long to = toMillis != null ? toMillis : Long.MAX_VALUE;
+
+        List<Segment> candidates = new ArrayList<>();
+        List<int[]> candidateOffsets = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                Segment segment = segments.get(i);
+                if (segment.offsets.size() == 0 || segment.maxTimestamp < from || segment.minTimestamp > to) {
+                    continue;
+                }
+
+                IntList offsets = segment.offsets;
+                if (username != null) {
+                    offsets = segment.userOffsets.get(username);
+                } else if (eventType != null) {
+                    offsets = segment.typeOffsets.get(eventType);
+                }
+
+                if (offsets != null) {
+                    candidates.add(segment);
+                    candidateOffsets.add(offsets.toArray());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<SecurityEvent> results = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && results.size() < limit; i++) {
+            readMatching(candidates.get(i), candidateOffsets.get(i), from, to, username, eventType, limit, results);
+        }
+        return results;
+    }
+
+    BatchingEventQueue<SecurityEvent> getPipeline() {
+        return pipeline;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            long records = 0;
+            long bytes = 0;
+            for (Segment segment : segments) {
+                records += segment.offsets.size();
+                bytes += segment.size;
+            }
+            stats.put("segments", segments.size());
+            stats.put("records", records);
+            stats.put("bytes", bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("pipeline", pipeline.getStats());
+        return stats;
+    }
+
+    private void readMatching(Segment segment, int[] offsets, long from, long to, String username, String eventType,
+            int limit, List<SecurityEvent> results) {
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+
+            for (int i = offsets.length - 1; i >= 0 && results.size() < limit; i--) {
+                header.clear();
+                channel.read(header, offsets[i]);
+                header.flip();
+                int length = header.getInt();
+
+                ByteBuffer body = ByteBuffer.allocate(length);
+                channel.read(body, offsets[i] + Integer.BYTES);
+
+                SecurityEvent event = decode(new DataInputStream(new ByteArrayInputStream(body.array())));
+                if (event.getTimestamp() < from || event.getTimestamp() > to) {
+                    continue;
+                }
+                if (username != null && !username.equals(event.getUsername())) {
+                    continue;
+                }
+                if (eventType != null && !eventType.equals(event.getEventType())) {
+                    continue;
+                }
+                results.add(event);
+            }
+        } catch (IOException e) {
+            log.error("Failed to read security journal segment {}", segment.path, e);
+        }
+    }
+
+    private void appendBatch(List<SecurityEvent> batch) throws IOException {
+        for (SecurityEvent event : batch) {
+            byte[] record;
+            try {
+                record = encode(event);
+            } catch (IOException | RuntimeException e) {
+                // Skip just this event; the rest of the batch is still written.
+                log.error("Dropping unencodable security event {} for {}: {}", event.getEventType(),
+                        event.getUsername(), e.toString());
+                continue;
+            }
+
+            LocalDate day = Instant.ofEpochMilli(event.getTimestamp()).atZone(ZoneId.systemDefault()).toLocalDate();
+            if (activeSegment == null || !day.equals(activeDay)
+                    || activeSegment.size + record.length > segmentMaxBytes) {
+                rollSegment(day);
+            }
+
+            pending.add(new PendingEntry(activeSegment, (int) activeSegment.size, event.getTimestamp(),
+                    event.getEventType(), event.getUsername()));
+            out.write(record);
+            activeSegment.size += record.length;
+        }
+        commitPending();
+    }
+
+    private void commitPending() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (PendingEntry entry : pending) {
+                entry.segment().index(entry.offset(), entry.timestamp(), entry.eventType(), entry.username());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.clear();
+    }
+
+    private void rollSegment(LocalDate day) throws IOException {
+        commitPending();
+        closeActiveSegment();
+        Files.createDirectories(directory);
+
+        long now = System.currentTimeMillis();
+        Path path = directory.resolve(SEGMENT_PREFIX + now + SEGMENT_SUFFIX);
+        while (Files.exists(path)) {
+            path = directory.resolve(SEGMENT_PREFIX + (++now) + SEGMENT_SUFFIX);
+        }
+
+        out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE_NEW), 32 * 1024);
+        activeSegment = new Segment(path);
+        activeDay = day;
+
+        lock.writeLock().lock();
+        try {
+            segments.add(activeSegment);
+            purgeExpiredSegments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void closeActiveSegment() throws IOException {
+        commitPending();
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        activeSegment = null;
+    }
+
+    private void purgeExpiredSegments() {
+        long cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS).toEpochMilli();
+        segments.removeIf(segment -> {
+            if (segment == activeSegment || segment.offsets.size() == 0 || segment.maxTimestamp >= cutoff) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(segment.path);
+                return true;
+            } catch (IOException e) {
+                log.warn("Failed to delete expired security journal segment {}", segment.path, e);
+                return false;
+            }
+        });
+    }
+
+    private void loadExistingSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(paths::add);
+        } catch (IOException e) {
+            log.error("Failed to list security journal segments", e);
+            return;
+        }
+        paths.sort(null);
+
+        for (Path path : paths) {
+            Segment segment = new Segment(path);
+            try (InputStream in = Files.newInputStream(path);
+                    DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+                while (true) {
+                    int length = data.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    byte[] body = new byte[length];
+                    data.readFully(body);
+
+                    SecurityEvent event = decode(new DataInputStream(new ByteArrayInputStream(body)));
+                    segment.index((int) segment.size, event.getTimestamp(), event.getEventType(),
+                            event.getUsername());
+                    segment.size += Integer.BYTES + length;
+                }
+            } catch (EOFException e) {
+                // Partially written tail record; everything before it is indexed
+            } catch (IOException e) {
+                log.error("Failed to load security journal segment {}", path, e);
+            }
+            segments.add(segment);
+        }
+
+        log.info("Loaded {} security journal segments", segments.size());
+    }
+
+    private byte[] encode(SecurityEvent event) throws IOException {
+        recordBuffer.reset();
+        DataOutputStream data = new DataOutputStream(recordBuffer);
+        data.writeInt(0);
+        data.writeLong(event.getTimestamp());
+        data.writeUTF(bounded(event.getEventType(), MAX_FIELD_LENGTH));
+        data.writeUTF(bounded(event.getUsername(), MAX_FIELD_LENGTH));
+        data.writeUTF(bounded(event.getSessionId(), MAX_FIELD_LENGTH));
+        data.writeUTF(bounded(event.getDetails(), MAX_DETAILS_LENGTH));
+        data.flush();
+
+        byte[] record = recordBuffer.toByteArray();
+        ByteBuffer.wrap(record).putInt(0, record.length - Integer.BYTES);
+        return record;
+    }
+
+    private SecurityEvent decode(DataInputStream data) throws IOException {
+        long timestamp = data.readLong();
+        String eventType = data.readUTF();
+        String username = data.readUTF();
+        String sessionId = data.readUTF();
+        String details = data.readUTF();
+        return new SecurityEvent(timestamp, eventType, username, sessionId, details);
+    }
+
+    private static String bounded(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private long size;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+        private final IntList offsets = new IntList();
+        private final Map<String, IntList> userOffsets = new HashMap<>();
+        private final Map<String, IntList> typeOffsets = new HashMap<>();
+
+        private Segment(Path path) {
+            this.path = path;
+        }
+
+        private void index(int offset, long timestamp, String eventType, String username) {
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            offsets.add(offset);
+            userOffsets.computeIfAbsent(username, k -> new IntList()).add(offset);
+            typeOffsets.computeIfAbsent(eventType, k -> new IntList()).add(offset);
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.twizzle.server.services;
+
+import com.twizzle.server.models.TraceSpan;
+import com.twizzle.server.utils.TraceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Creates spans for the current trace and exports finished spans into a fixed-size in-memory ring buffer that the
+ * monitoring endpoints read from. Recording a span is a single array write, so the oldest spans are simply
+ * overwritten once the buffer wraps.
+ */
+@Service
+public class TracingService {
+
+    private final AtomicReferenceArray<TraceSpan> buffer;
+    private final int mask;
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    public TracingService(@Value("${tracing.buffer-size:4096}") int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, bufferSize - 1)) << 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public Scope startTrace(String traceId, String name, String kind) {
+        String id = traceId != null ? traceId : newId();
+        return open(new TraceSpan(id, newId(), null, name, kind));
+    }
+
+    public Scope startSpan(String name, String kind) {
+        TraceSpan parent = TraceContext.current();
+        String traceId = parent != null ? parent.getTraceId() : newId();
+        return open(new TraceSpan(traceId, newId(), parent, name, kind));
+    }
+
+    public List<TraceSpan> getRecentSpans(String traceId, int limit) {
+        List<TraceSpan> spans = new ArrayList<>();
+        long end = writeIndex.get();
+        long start = Math.max(0, end - buffer.length());
+
+        for (long i = end - 1; i >= start && spans.size() < limit; i--) {
+            TraceSpan span = buffer.get((int) (i & mask));
+            if (span != null && (traceId == null || traceId.equals(span.getTraceId()))) {
+                spans.add(span);
+            }
+        }
+
+        if (traceId != null) {
+            Collections.reverse(spans);
+        }
+        return spans;
+    }
+
+    public List<Map<String, Object>> getRecentTraces(int limit) {
+        Map<String, Map<String, Object>> traces = new LinkedHashMap<>();
+        for (TraceSpan span : getRecentSpans(null, buffer.length())) {
+            if (span.getParentSpanId() == null && traces.size() < limit) {
+                Map<String, Object> trace = new HashMap<>();
+                trace.put("traceId", span.getTraceId());
+                trace.put("name", span.getName());
+                trace.put("startTime", span.getStartTime());
+                trace.put("durationMicros", span.getDurationMicros());
+                trace.put("error", span.getError());
+                traces.putIfAbsent(span.getTraceId(), trace);
+            }
+        }
+        return new ArrayList<>(traces.values());
+    }
+
+    public static String newId() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+    }
+
+    private Scope open(TraceSpan span) {
+        TraceSpan previous = TraceContext.attach(span);
+        return new Scope(span, previous);
+    }
+
+    private void export(TraceSpan span) {
+        long index = writeIndex.getAndIncrement();
+        buffer.set((int) (index & mask), span);
+    }
+
+    /**
+     * Active span handle; closing it finishes the span and restores whatever span was active before it.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final TraceSpan span;
+        private final TraceSpan previous;
+
+        private Scope(TraceSpan span, TraceSpan previous) {
+            this.span = span;
+            this.previous = previous;
+        }
+
+        public TraceSpan span() {
+            return span;
+        }
+
+        public void rename(String name) {
+            span.setName(name);
+        }
+
+        public void error(Throwable error) {
+            span.setError(error.getClass().getSimpleName() + ": " + error.getMessage());
+        }
+
+        @Override
+        public void close() {
+            span.setDurationMicros((System.nanoTime() - span.getStartNanos()) / 1_000);
+            TraceContext.attach(previous);
+            export(span);
+        }
+    }
+}
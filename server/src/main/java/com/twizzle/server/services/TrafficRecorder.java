@@ -0,0 +1,76 @@
+package com.twizzle.server.services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Captures a sample of live requests (arrival offset, method, matched route and concrete path) into a fixed-size ring
+ * buffer, so that a load test can replay the real endpoint mix and arrival pattern. Request bodies, headers and
+ * cookies are never recorded. Off unless {@code app.traffic.recording.enabled=true}.
+ */
+@Service
+public class TrafficRecorder {
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final AtomicReferenceArray<Entry> buffer;
+    private final int mask;
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+
+    public TrafficRecorder(@Value("${app.traffic.recording.enabled:false}") boolean enabled,
+            @Value("${app.traffic.recording.sample-rate:1.0}") double sampleRate,
+            @Value("${app.traffic.recording.buffer-size:65536}") int bufferSize) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        int capacity = Integer.highestOneBit(Math.max(16, bufferSize - 1)) << 1;
+        this.buffer = new AtomicReferenceArray<>(enabled ? capacity : 1);
+        this.mask = buffer.length() - 1;
+    }
+
+    public void record(HttpServletRequest request, String route, int status) {
+        if (!enabled || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (request.getQueryString() != null) {
+            path += "?" + request.getQueryString();
+        }
+        long offsetMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        long index = writeIndex.getAndIncrement();
+        buffer.set((int) (index & mask), new Entry(offsetMillis, request.getMethod(), route, path, status));
+    }
+
+    /**
+     * Returns the buffered requests, oldest first.
+     */
+    public List<Entry> getRecording() {
+        List<Entry> entries = new ArrayList<>();
+        long end = writeIndex.get();
+        for (long i = Math.max(0, end - buffer.length()); i < end; i++) {
+            Entry entry = buffer.get((int) (i & mask));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * One recorded request. {@code route} is the matched route template (e.g. {@code GET /posts/like/{postId}}),
+     * {@code path} the concrete path and query string relative to the context path.
+     */
+    public record Entry(long offsetMillis, String method, String route, String path, int status) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.twizzle.server.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.twizzle.server.models.User;
+import com.twizzle.server.models.UserChangedEvent;
+import com.twizzle.server.models.UserLiteDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Evicts every cache derived from a user once the change is committed (or immediately when no transaction is active).
+ * Only the {@code users-by-id} key is broadcast to other nodes; each node then evicts the derived caches itself.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @PostConstruct
+    public void registerDerivedCaches() {
+        cacheManager.onInvalidate(UserService.USERS_BY_ID, this::evictDerived);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cacheManager.invalidate(UserService.USERS_BY_ID, event.getUserId());
+        log.debug("Invalidated cached user data for user {}", event.getUserId());
+    }
+
+    private void evictDerived(Object key) {
+        Cache<Long, String> usernames = cacheManager.getCache(UserService.USERNAMES_BY_ID);
+        Cache<String, User> byUsername = cacheManager.getCache(UserService.USERS_BY_USERNAME);
+        Cache<String, List<UserLiteDTO>> connections = cacheManager.getCache(UserService.USER_CONNECTIONS);
+
+        if (!(key instanceof Long userId)) {
+            usernames.invalidateAll();
+            byUsername.invalidateAll();
+            connections.invalidateAll();
+            return;
+        }
+
+        usernames.invalidate(userId);
+
+        // Username keys and connection lists are not keyed by id, so scan them; both caches are small and bounded.
+        byUsername.asMap().values().removeIf(user -> userId.equals(user.getId()));
+        connections.asMap().keySet().removeIf(cacheKey -> cacheKey.endsWith("_" + userId));
+        connections.asMap().values()
+                .removeIf(users -> users.stream().anyMatch(user -> userId.equals(user.getId())));
+    }
+}
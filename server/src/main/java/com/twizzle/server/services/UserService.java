@@ -3,6 +3,7 @@ package com.twizzle.server.services;
 import com.twizzle.server.exceptions.CustomException;
 import com.twizzle.server.models.*;
 import com.twizzle.server.repositories.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,41 +19,52 @@ import static com.twizzle.server.models.Messages.*;
 @Service
 public class UserService {
 
+    static final String USERS_BY_ID = "users-by-id";
+    static final String USERS_BY_USERNAME = "users-by-username";
+    static final String USERNAMES_BY_ID = "usernames-by-id";
+    static final String USER_CONNECTIONS = "user-connections";
+
     private final UserRepository userRepository;
     private final ExperienceRepository experienceRepository;
     private final EducationRepository educationRepository;
     private final SkillRepository skillRepository;
     private final CertificateRepository certificateRepository;
     private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserService(UserRepository userRepository, ExperienceRepository experienceRepository,
             EducationRepository educationRepository, SkillRepository skillRepository,
-            CertificateRepository certificateRepository, CacheManager cacheManager) {
+            CertificateRepository certificateRepository, CacheManager cacheManager,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.experienceRepository = experienceRepository;
         this.educationRepository = educationRepository;
         this.skillRepository = skillRepository;
         this.certificateRepository = certificateRepository;
         this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
     public User getUserInfo(String username) {
-        var userCache = cacheManager.<String, User>getCache("users-by-username");
-        User cachedUser = userCache.getIfPresent(username);
-        if (cachedUser != null) {
-            return cachedUser;
+        User user = cacheManager.<String, User>getLoadingCache(USERS_BY_USERNAME,
+                key -> userRepository.findByUsername(key).map(User::snapshot).orElse(null)).get(username);
+        if (user == null) {
+            throw new CustomException(404, String.format(USER_NOT_FOUND_BY_USERNAME, username));
         }
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new CustomException(404, String.format(USER_NOT_FOUND_BY_USERNAME, username)));
-
-        userCache.put(username, user);
         return user;
     }
 
+    /**
+     * Id of the user if {@code username} is cached, without going to the database; {@code null} otherwise.
+     */
+    public Long cachedUserId(String username) {
+        User user = cacheManager.<String, User>getCache(USERS_BY_USERNAME).getIfPresent(username);
+        return user != null ? user.getId() : null;
+    }
+
     public String getUsernameById(Long userId) {
-        var usernameCache = cacheManager.<Long, String>getCache("usernames-by-id");
+        var usernameCache = cacheManager.<Long, String>getCache(USERNAMES_BY_ID);
         String cachedUsername = usernameCache.getIfPresent(userId);
         if (cachedUsername != null) {
             return cachedUsername;
@@ -67,16 +79,11 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public User getUserById(Long userId) {
-        var userCache = cacheManager.<Long, User>getCache("users-by-id");
-        User cachedUser = userCache.getIfPresent(userId);
-        if (cachedUser != null) {
-            return cachedUser;
+        User user = cacheManager.<Long, User>getLoadingCache(USERS_BY_ID,
+                key -> userRepository.findById(key).map(User::snapshot).orElse(null)).get(userId);
+        if (user == null) {
+            throw new CustomException(404, String.format(USER_NOT_FOUND_BY_ID, userId));
         }
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new CustomException(404, String.format(USER_NOT_FOUND_BY_ID, userId)));
-
-        userCache.put(userId, user);
         return user;
     }
 
@@ -98,7 +105,7 @@ public class UserService {
 
     private List<UserLiteDTO> getUserConnections(Long userId, String connectionType,
             java.util.function.Function<Long, java.util.Optional<List<String>>> repositoryMethod) {
-        var cache = cacheManager.<String, List<UserLiteDTO>>getCache("user-connections", 30, 300);
+        var cache = cacheManager.<String, List<UserLiteDTO>>getCache(USER_CONNECTIONS);
         String cacheKey = connectionType + "_" + userId;
         List<UserLiteDTO> cachedResult = cache.getIfPresent(cacheKey);
         if (cachedResult != null) {
@@ -117,26 +124,34 @@ public class UserService {
         }
 
         List<Long> connectionLongIds = connectionIds.stream().map(Long::parseLong).collect(Collectors.toList());
-        List<UserLiteDTO> connections = userRepository.findUserLiteByIdIn(connectionLongIds);
+        List<UserLiteDTO> connections = List.copyOf(userRepository.findUserLiteByIdIn(connectionLongIds));
 
         cache.put(cacheKey, connections);
         return connections;
     }
 
     public Experience addExperience(Experience experience) {
-        return experienceRepository.save(experience);
+        Experience saved = experienceRepository.save(experience);
+        eventPublisher.publishEvent(new UserChangedEvent(experience.getUserId()));
+        return saved;
     }
 
     public Education addEducation(Education education) {
-        return educationRepository.save(education);
+        Education saved = educationRepository.save(education);
+        eventPublisher.publishEvent(new UserChangedEvent(education.getUserId()));
+        return saved;
     }
 
     public Skill addSkill(Skill skill) {
-        return skillRepository.save(skill);
+        Skill saved = skillRepository.save(skill);
+        eventPublisher.publishEvent(new UserChangedEvent(skill.getUserId()));
+        return saved;
     }
 
     public Certificate addCertificate(Certificate certificate) {
-        return certificateRepository.save(certificate);
+        Certificate saved = certificateRepository.save(certificate);
+        eventPublisher.publishEvent(new UserChangedEvent(certificate.getUserId()));
+        return saved;
     }
 
 }
@@ -0,0 +1,180 @@
+package com.twizzle.server.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded multi-producer / single-consumer queue that hands events to a {@link BatchHandler} in batches on one
+ * dedicated writer thread. Producers never block on I/O; when the buffer is full the configured
+ * {@link OverflowPolicy} decides whether the event is dropped straight away or waits for a bounded time.
+ */
+@Slf4j
+public class BatchingEventQueue<T> implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    public interface BatchHandler<T> {
+
+        void onBatch(List<T> batch) throws Exception;
+
+        default void onIdle() throws Exception {
+        }
+
+        default void onClose() throws Exception {
+        }
+    }
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final long idleFlushMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final BatchHandler<T> handler;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAccumulator largestBatch = new LongAccumulator(Long::max, 0);
+
+    public BatchingEventQueue(String name, int capacity, int maxBatchSize, long idleFlushMillis,
+            OverflowPolicy overflowPolicy, long blockTimeoutMillis, BatchHandler<T> handler) {
+        this.name = name;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.idleFlushMillis = idleFlushMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.handler = handler;
+
+        this.writerThread = new Thread(this::drainLoop, name + "-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public boolean offer(T event) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+
+        boolean accepted = queue.offer(event);
+        if (!accepted && overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(event, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (accepted) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+        return accepted;
+    }
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(idleFlushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    handler.onIdle();
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+
+                handler.onBatch(batch);
+
+                processed.add(batch.size());
+                batches.increment();
+                largestBatch.accumulate(batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failed.add(batch.size());
+                log.error("[{}] Failed to process batch of {} events", name, batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        try {
+            handler.onClose();
+        } catch (Exception e) {
+            log.error("[{}] Failed to close batch handler", name, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("name", name);
+        stats.put("capacity", capacity);
+        stats.put("queued", queue.size());
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("processed", processed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("batches", batches.sum());
+        stats.put("largestBatch", largestBatch.get());
+        return stats;
+    }
+
+    /**
+     * Writes queue depth and throughput families for a set of queues, labelled by queue name.
+     */
+    public static void writeMetrics(MetricsWriter writer, List<BatchingEventQueue<?>> queues) throws IOException {
+        writer.gauge("twizzle_queue_depth", "Events waiting for the writer thread");
+        for (BatchingEventQueue<?> q : queues) {
+            writer.sample("twizzle_queue_depth", q.queue.size(), "queue", q.name);
+        }
+
+        writer.gauge("twizzle_queue_capacity", "Bounded queue capacity");
+        for (BatchingEventQueue<?> q : queues) {
+            writer.sample("twizzle_queue_capacity", q.capacity, "queue", q.name);
+        }
+
+        writer.counter("twizzle_queue_events", "Events by outcome");
+        for (BatchingEventQueue<?> q : queues) {
+            writer.total("twizzle_queue_events", q.enqueued.sum(), "queue", q.name, "outcome", "enqueued");
+            writer.total("twizzle_queue_events", q.dropped.sum(), "queue", q.name, "outcome", "dropped");
+            writer.total("twizzle_queue_events", q.processed.sum(), "queue", q.name, "outcome", "processed");
+            writer.total("twizzle_queue_events", q.failed.sum(), "queue", q.name, "outcome", "failed");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.twizzle.server.utils;
+
+import com.twizzle.server.exceptions.CustomException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded thread pool reserved for one class of work, so that a burst in one workload queues (and eventually gets
+ * rejected) inside its own pool instead of taking threads from the others. Rejections and call timeouts are counted
+ * for the executor metrics.
+ */
+@Getter
+public class BulkheadExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String workload;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    @Setter
+    private Duration callTimeout = Duration.ofSeconds(30);
+
+    public BulkheadExecutor(String workload) {
+        this.workload = workload;
+        setThreadNamePrefix(workload + "-");
+        setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            handler.rejectedExecution(task, pool);
+        });
+    }
+
+    /**
+     * Runs {@code task} on this pool and waits up to the call timeout for its result. The calling thread still
+     * blocks, but the number of tasks of this kind that run at once is capped by the pool size. Runtime exceptions
+     * thrown by the task are rethrown as-is.
+     *
+     * @throws CustomException 503 when the pool and its queue are full, 504 when the task does not finish in time
+     */
+    public <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = submit(task);
+        } catch (TaskRejectedException e) {
+            throw new CustomException(503, "The " + workload + " pool is at capacity, please retry shortly");
+        }
+
+        try {
+            return future.get(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new CustomException(504, "The " + workload + " task did not complete within " + callTimeout);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CustomException(503, "Interrupted while waiting for the " + workload + " task");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.twizzle.server.utils;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-action connection lifecycle timings: how long the caller waited to borrow a connection (acquire), how long it
+ * held it (use) and how long handing it back to the pool took (return). A long use phase next to a short query time
+ * points at work done while holding the connection; a long return phase at pool-side resets.
+ */
+public class ConnectionTimings {
+
+    private final Map<String, Phases> byAction = new ConcurrentHashMap<>();
+
+    /**
+     * Records the acquire phase that started at {@code acquireStartNanos} and wraps {@code connection} so that
+     * closing it records the use and return phases.
+     */
+    public Connection track(String action, long acquireStartNanos, Connection connection) {
+        Phases phases = byAction.computeIfAbsent(action, k -> new Phases());
+        long acquiredAt = System.nanoTime();
+        phases.acquire.record(acquiredAt - acquireStartNanos);
+
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionTimings.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        long closeStart = System.nanoTime();
+                        phases.use.record(closeStart - acquiredAt);
+                        try {
+                            connection.close();
+                        } finally {
+                            phases.release.record(System.nanoTime() - closeStart);
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public void writeMetrics(MetricsWriter writer, String name, String help) throws IOException {
+        writer.summary(name, help);
+        for (Map.Entry<String, Phases> entry : byAction.entrySet()) {
+            Phases phases = entry.getValue();
+            writer.latency(name, phases.acquire.snapshot(), "action", entry.getKey(), "phase", "acquire");
+            writer.latency(name, phases.use.snapshot(), "action", entry.getKey(), "phase", "use");
+            writer.latency(name, phases.release.snapshot(), "action", entry.getKey(), "phase", "return");
+        }
+    }
+
+    private static final class Phases {
+        private final LatencyHistogram acquire = new LatencyHistogram();
+        private final LatencyHistogram use = new LatencyHistogram();
+        private final LatencyHistogram release = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,67 @@
+package com.twizzle.server.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Append-only buffered file that rolls over to a new file whenever the calendar day changes. Only ever used from a
+ * single writer thread, so it keeps the stream open between batches instead of reopening the file per event.
+ */
+public class DailyRollingFileSink implements AutoCloseable {
+
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final String prefix;
+    private final String suffix;
+
+    private LocalDate currentDate;
+    private OutputStream out;
+
+    public DailyRollingFileSink(Path directory, String prefix, String suffix) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    public void write(byte[] bytes) throws IOException {
+        rollIfNeeded();
+        out.write(bytes);
+    }
+
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void rollIfNeeded() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (out != null && today.equals(currentDate)) {
+            return;
+        }
+
+        close();
+        Files.createDirectories(directory);
+
+        Path file = directory.resolve(prefix + today.format(FILE_DATE_FORMAT) + suffix);
+        out = new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_SIZE);
+        currentDate = today;
+    }
+}
@@ -0,0 +1,12 @@
+package com.twizzle.server.utils;
+
+import java.io.IOException;
+
+/**
+ * A component that contributes metric families to the OpenMetrics scrape. Implementations write straight to the
+ * {@link MetricsWriter} and must emit all samples of a family right after its header.
+ */
+public interface MetricsSource {
+
+    void writeMetrics(MetricsWriter writer) throws IOException;
+}
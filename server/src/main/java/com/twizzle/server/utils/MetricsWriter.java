@@ -0,0 +1,134 @@
+package com.twizzle.server.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams metrics in the OpenMetrics text format directly to a {@link Writer}, so a scrape never materialises the
+ * whole metric set in memory. Labels are passed as alternating name/value pairs.
+ */
+public class MetricsWriter {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final Writer out;
+
+    public MetricsWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void counter(String name, String help) throws IOException {
+        header(name, "counter", help);
+    }
+
+    public void gauge(String name, String help) throws IOException {
+        header(name, "gauge", help);
+    }
+
+    public void summary(String name, String help) throws IOException {
+        header(name, "summary", help);
+    }
+
+    /**
+     * Writes a counter sample; {@code name} is the family name, the {@code _total} suffix is appended here.
+     */
+    public void total(String name, double value, String... labels) throws IOException {
+        sample(name + "_total", value, labels);
+    }
+
+    public void sample(String name, double value, String... labels) throws IOException {
+        out.write(name);
+        writeLabels(labels, null, null);
+        out.write(' ');
+        writeValue(value);
+        out.write('\n');
+    }
+
+    /**
+     * Writes quantile, count and sum samples of a latency summary, converting nanoseconds to seconds.
+     */
+    public void latency(String name, LatencyHistogram.Snapshot snapshot, String... labels) throws IOException {
+        latency(name, snapshot, snapshot.count(), snapshot.sum(), labels);
+    }
+
+    /**
+     * Variant for windowed quantiles: count and sum must stay monotonic for rate() so they are passed separately.
+     */
+    public void latency(String name, LatencyHistogram.Snapshot quantiles, long count, long sumNanos, String... labels)
+            throws IOException {
+        for (double quantile : QUANTILES) {
+            out.write(name);
+            writeLabels(labels, "quantile", Double.toString(quantile));
+            out.write(' ');
+            writeValue(quantiles.percentile(quantile * 100) / NANOS_PER_SECOND);
+            out.write('\n');
+        }
+        sample(name + "_count", count, labels);
+        sample(name + "_sum", sumNanos / NANOS_PER_SECOND, labels);
+    }
+
+    public void finish() throws IOException {
+        out.write("# EOF\n");
+        out.flush();
+    }
+
+    private void header(String name, String type, String help) throws IOException {
+        out.write("# TYPE ");
+        out.write(name);
+        out.write(' ');
+        out.write(type);
+        out.write("\n# HELP ");
+        out.write(name);
+        out.write(' ');
+        out.write(help);
+        out.write('\n');
+    }
+
+    private void writeLabels(String[] labels, String extraName, String extraValue) throws IOException {
+        if (labels.length == 0 && extraName == null) {
+            return;
+        }
+
+        out.write('{');
+        boolean first = true;
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            first = writeLabel(labels[i], labels[i + 1], first);
+        }
+        if (extraName != null) {
+            writeLabel(extraName, extraValue, first);
+        }
+        out.write('}');
+    }
+
+    private boolean writeLabel(String name, String value, boolean first) throws IOException {
+        if (!first) {
+            out.write(',');
+        }
+        out.write(name);
+        out.write("=\"");
+        String safe = value != null ? value : "";
+        for (int i = 0; i < safe.length(); i++) {
+            char c = safe.charAt(i);
+            switch (c) {
+                case '\\' -> out.write("\\\\");
+                case '"' -> out.write("\\\"");
+                case '\n' -> out.write("\\n");
+                default -> out.write(c);
+            }
+        }
+        out.write('"');
+        return false;
+    }
+
+    private void writeValue(double value) throws IOException {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.write(Long.toString((long) value));
+        } else {
+            out.write(Double.toString(value));
+        }
+    }
+}
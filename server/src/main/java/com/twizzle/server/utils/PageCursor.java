@@ -0,0 +1,85 @@
+package com.twizzle.server.utils;
+
+import com.twizzle.server.exceptions.CustomException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Position in a listing for keyset ("seek") pagination: the sort timestamp and id of the last row a client has seen.
+ * Clients only ever see it as an opaque token, which they pass back as {@code cursor} to get the rows that follow.
+ * Listing actions receive it as {@code cursorTimestamp}/{@code cursorId} and seek past that row instead of skipping
+ * {@code page * size} rows, so every page costs the same however deep it is, and rows inserted meanwhile do not shift
+ * the pages that follow.
+ */
+public record PageCursor(String timestamp, long id) {
+
+    private static final String VERSION = "1";
+
+    /**
+     * Reads a token produced by {@link #encode()}; {@code null} or blank means "from the start".
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] fields = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8)
+                    .split("\\|", 3);
+            if (fields.length != 3 || !VERSION.equals(fields[0])) {
+                throw new CustomException(400, "Invalid cursor");
+            }
+            return new PageCursor(fields[1], Long.parseLong(fields[2]));
+        } catch (IllegalArgumentException e) {
+            throw new CustomException(400, "Invalid cursor");
+        }
+    }
+
+    /**
+     * Like {@link #decode(String)}, but rejects a cursor when the backend cannot seek, instead of letting it be
+     * ignored and the first page be served again.
+     */
+    public static PageCursor decode(String token, boolean seekSupported) {
+        PageCursor cursor = decode(token);
+        if (cursor != null && !seekSupported) {
+            throw new CustomException(400, "Cursor pagination is not supported; use page and size");
+        }
+        return cursor;
+    }
+
+    /**
+     * Cursor after the last of {@code rows}, or {@code null} if there is nothing to continue from: the page was not
+     * full, or a row lacks an id.
+     */
+    public static PageCursor after(List<?> rows, int size, String timestampField) {
+        if (rows.isEmpty() || rows.size() < size || !(rows.get(rows.size() - 1) instanceof Map<?, ?> last)) {
+            return null;
+        }
+        Object id = last.containsKey("id") ? last.get("id") : last.get("postId");
+        if (id == null) {
+            return null;
+        }
+        try {
+            long value = id instanceof Number number ? number.longValue() : Long.parseLong(id.toString());
+            Object timestamp = last.get(timestampField);
+            return new PageCursor(timestamp != null ? timestamp.toString() : "", value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((VERSION + "|" + timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds the cursor parameters to a listing request.
+     */
+    public void addTo(Map<String, Object> request) {
+        request.put("cursorTimestamp", timestamp);
+        request.put("cursorId", id);
+    }
+}
@@ -1,5 +1,6 @@
 package com.twizzle.server.utils;
 
+import com.twizzle.server.aspects.Traced;
 import com.twizzle.server.exceptions.CustomException;
 import com.twizzle.server.services.DBService;
 import com.twizzle.server.services.LoggingService;
@@ -7,6 +8,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Component
+@Traced
 public class PostScheduler {
 
     private final DBService dbService;
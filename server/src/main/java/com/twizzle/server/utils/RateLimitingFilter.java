@@ -10,8 +10,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 public class RateLimitingFilter implements Filter {
@@ -21,9 +23,13 @@ public class RateLimitingFilter implements Filter {
     private final Map<String, Bucket> userBuckets = new ConcurrentHashMap<>();
     private final String activeProfile;
     private final LoggingService loggingService;
+    private final String name;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
 
-    public RateLimitingFilter(int defaultLimit, long defaultDurationMinutes, String activeProfile,
+    public RateLimitingFilter(String name, int defaultLimit, long defaultDurationMinutes, String activeProfile,
             LoggingService loggingService) {
+        this.name = name;
         this.defaultLimit = defaultLimit;
         this.defaultDurationMinutes = defaultDurationMinutes;
         this.activeProfile = activeProfile;
@@ -59,8 +65,10 @@ public class RateLimitingFilter implements Filter {
                 Bucket bucket = userBuckets.computeIfAbsent(clientKey, key -> createRateLimitBucket());
 
                 if (bucket.tryConsume(1)) {
+                    allowed.increment();
                     chain.doFilter(request, response);
                 } else {
+                    rejected.increment();
                     loggingService.logWarn("Rate limit exceeded for client: {} on endpoint: {}", clientKey, requestUri);
                     log.warn("Rate limit exceeded for client: {} on endpoint: {}", clientKey, requestUri);
                     sendRateLimitResponse(httpResponse);
@@ -83,6 +91,24 @@ public class RateLimitingFilter implements Filter {
         userBuckets.clear();
     }
 
+    /**
+     * Writes decision counters and tracked-client gauges for a set of limiters, labelled by limiter name.
+     */
+    public static void writeMetrics(MetricsWriter writer, List<RateLimitingFilter> filters) throws IOException {
+        writer.counter("twizzle_rate_limit_decisions", "Rate limiter decisions by outcome");
+        for (RateLimitingFilter filter : filters) {
+            writer.total("twizzle_rate_limit_decisions", filter.allowed.sum(), "limiter", filter.name, "outcome",
+                    "allowed");
+            writer.total("twizzle_rate_limit_decisions", filter.rejected.sum(), "limiter", filter.name, "outcome",
+                    "rejected");
+        }
+
+        writer.gauge("twizzle_rate_limit_tracked_clients", "Clients with a live token bucket");
+        for (RateLimitingFilter filter : filters) {
+            writer.sample("twizzle_rate_limit_tracked_clients", filter.userBuckets.size(), "limiter", filter.name);
+        }
+    }
+
     private boolean shouldApplyRateLimit(String requestUri) {
         return requestUri != null;
     }
@@ -0,0 +1,14 @@
+package com.twizzle.server.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Measures how far the read replica is behind the primary. Declare a bean to plug in a database-specific check;
+ * without one, {@code app.database.replica.lag-query} (a query returning the lag in seconds) is used if set.
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    long lagMillis(Connection replica) throws SQLException;
+}
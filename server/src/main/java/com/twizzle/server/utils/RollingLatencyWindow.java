@@ -0,0 +1,98 @@
+package com.twizzle.server.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding time window of latency histograms and error counts. Time is split into fixed slices (one minute by default)
+ * held in a ring; a slice is lazily replaced the first time it is written in a new period, so recording stays
+ * lock-free and reading the last N slices gives a window that moves forward one slice at a time.
+ */
+public class RollingLatencyWindow {
+
+    private final AtomicReferenceArray<Slice> slices;
+    private final long sliceMillis;
+
+    public RollingLatencyWindow(int sliceCount, long sliceDuration, TimeUnit unit) {
+        this.slices = new AtomicReferenceArray<>(sliceCount);
+        this.sliceMillis = unit.toMillis(sliceDuration);
+    }
+
+    public void record(long nanos, boolean error) {
+        Slice slice = current(System.currentTimeMillis() / sliceMillis);
+        slice.histogram.record(nanos);
+        if (error) {
+            slice.errors.increment();
+        }
+    }
+
+    /**
+     * Aggregates the most recent {@code sliceCount} slices, including the one currently being written.
+     */
+    public Window snapshot(int sliceCount) {
+        long period = System.currentTimeMillis() / sliceMillis;
+        int count = Math.min(sliceCount, slices.length());
+
+        LatencyHistogram.Snapshot latency = LatencyHistogram.Snapshot.empty();
+        long errors = 0;
+        for (int i = 0; i < slices.length(); i++) {
+            Slice slice = slices.get(i);
+            if (slice != null && slice.period > period - count && slice.period <= period) {
+                latency = latency.merge(slice.histogram.snapshot());
+                errors += slice.errors.sum();
+            }
+        }
+        return new Window(latency, errors);
+    }
+
+    public void reset() {
+        for (int i = 0; i < slices.length(); i++) {
+            slices.set(i, null);
+        }
+    }
+
+    private Slice current(long period) {
+        int index = (int) (period % slices.length());
+        while (true) {
+            Slice slice = slices.get(index);
+            if (slice != null && slice.period == period) {
+                return slice;
+            }
+            if (slice != null && slice.period > period) {
+                // A concurrent writer already moved this slot to a later period; count into it rather than lose it.
+                return slice;
+            }
+            Slice fresh = new Slice(period);
+            if (slices.compareAndSet(index, slice, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class Slice {
+
+        private final long period;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        private Slice(long period) {
+            this.period = period;
+        }
+    }
+
+    /**
+     * Latency distribution and error count over a window.
+     */
+    public record Window(LatencyHistogram.Snapshot latency, long errors) {
+
+        public long requests() {
+            return latency.count();
+        }
+
+        public double errorRate() {
+            long requests = requests();
+            return requests > 0 ? (double) errors / requests * 100 : 0.0;
+        }
+    }
+}
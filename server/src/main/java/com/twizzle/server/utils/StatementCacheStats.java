@@ -0,0 +1,115 @@
+package com.twizzle.server.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tells whether prepared calls are served from the Oracle driver's statement cache. The driver is a runtime-only
+ * dependency, so its API is looked up reflectively once at class load; {@code OracleStatement.creationState()} then
+ * reports per statement whether it was freshly parsed or came from the implicit or explicit cache. With another
+ * driver every statement is counted as {@code unknown}.
+ */
+@Slf4j
+public class StatementCacheStats {
+
+    private static final Class<?> ORACLE_STATEMENT = loadClass("oracle.jdbc.OracleStatement");
+    private static final Class<?> ORACLE_CONNECTION = loadClass("oracle.jdbc.OracleConnection");
+    private static final Method CREATION_STATE = method(ORACLE_STATEMENT, "creationState");
+    private static final Method IMPLICIT_CACHING_ENABLED = method(ORACLE_CONNECTION, "getImplicitCachingEnabled");
+    private static final Method STATEMENT_CACHE_SIZE = method(ORACLE_CONNECTION, "getStatementCacheSize");
+
+    private static final int CREATED_NEW = 0;
+    private static final int FROM_IMPLICIT_CACHE = 1;
+
+    private final AtomicBoolean verified = new AtomicBoolean();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder implicitHits = new LongAdder();
+    private final LongAdder explicitHits = new LongAdder();
+    private final LongAdder unknown = new LongAdder();
+    private volatile int cacheSize = -1;
+
+    /**
+     * Checks once that implicit statement caching is switched on for the pool's connections and logs a warning
+     * otherwise, since every call would then be re-parsed.
+     */
+    public void verify(Connection connection) {
+        if (ORACLE_CONNECTION == null || !verified.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Object oracle = connection.unwrap(ORACLE_CONNECTION);
+            boolean enabled = (Boolean) IMPLICIT_CACHING_ENABLED.invoke(oracle);
+            cacheSize = enabled ? (Integer) STATEMENT_CACHE_SIZE.invoke(oracle) : 0;
+            if (cacheSize > 0) {
+                log.info("Oracle implicit statement cache enabled with {} statements per connection", cacheSize);
+            } else {
+                log.warn("Oracle implicit statement caching is disabled; every call will be parsed again");
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            log.debug("Could not inspect the Oracle statement cache: {}", e.getMessage());
+        }
+    }
+
+    public void record(Statement statement) {
+        if (CREATION_STATE == null) {
+            unknown.increment();
+            return;
+        }
+        try {
+            int state = (Integer) CREATION_STATE.invoke(statement.unwrap(ORACLE_STATEMENT));
+            if (state == CREATED_NEW) {
+                created.increment();
+            } else if (state == FROM_IMPLICIT_CACHE) {
+                implicitHits.increment();
+            } else {
+                explicitHits.increment();
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            unknown.increment();
+        }
+    }
+
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        writer.counter("twizzle_db_statements", "Prepared calls by origin");
+        writer.total("twizzle_db_statements", created.sum(), "source", "new");
+        writer.total("twizzle_db_statements", implicitHits.sum(), "source", "implicit_cache");
+        writer.total("twizzle_db_statements", explicitHits.sum(), "source", "explicit_cache");
+        writer.total("twizzle_db_statements", unknown.sum(), "source", "unknown");
+
+        long hits = implicitHits.sum() + explicitHits.sum();
+        long known = hits + created.sum();
+        writer.gauge("twizzle_db_statement_cache_hit_ratio", "Share of prepared calls served from the cache");
+        writer.sample("twizzle_db_statement_cache_hit_ratio", known == 0 ? 0 : (double) hits / known);
+
+        if (cacheSize >= 0) {
+            writer.gauge("twizzle_db_statement_cache_size", "Oracle implicit statement cache size per connection");
+            writer.sample("twizzle_db_statement_cache_size", cacheSize);
+        }
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method method(Class<?> type, String name) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.twizzle.server.utils;
+
+import com.twizzle.server.models.TraceSpan;
+import org.slf4j.MDC;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the span active on the current thread and mirrors its trace id into the logging MDC. The {@code wrap}
+ * helpers carry the caller's span over to work that runs on another thread ({@code @Async} executors,
+ * {@code CompletableFuture}s), so spans started there join the originating request's trace.
+ */
+public final class TraceContext {
+
+    public static final String TRACE_ID_KEY = "traceId";
+
+    private static final ThreadLocal<TraceSpan> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    public static TraceSpan current() {
+        return CURRENT.get();
+    }
+
+    public static String currentTraceId() {
+        TraceSpan span = CURRENT.get();
+        return span != null ? span.getTraceId() : null;
+    }
+
+    public static TraceSpan attach(TraceSpan span) {
+        TraceSpan previous = CURRENT.get();
+        if (span != null) {
+            CURRENT.set(span);
+            MDC.put(TRACE_ID_KEY, span.getTraceId());
+        } else {
+            CURRENT.remove();
+            MDC.remove(TRACE_ID_KEY);
+        }
+        return previous;
+    }
+
+    public static Runnable wrap(Runnable task) {
+        TraceSpan captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            TraceSpan previous = attach(captured);
+            try {
+                task.run();
+            } finally {
+                attach(previous);
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        TraceSpan captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            TraceSpan previous = attach(captured);
+            try {
+                return task.get();
+            } finally {
+                attach(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.twizzle.server.utils;
+
+import com.twizzle.server.services.TracingService;
+import lombok.NonNull;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+public class TracingClientInterceptor implements ClientHttpRequestInterceptor {
+
+    private final TracingService tracingService;
+
+    public TracingClientInterceptor(TracingService tracingService) {
+        this.tracingService = tracingService;
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+            @NonNull ClientHttpRequestExecution execution) throws IOException {
+        try (TracingService.Scope scope = tracingService
+                .startSpan("http " + request.getMethod() + " " + request.getURI().getHost(), "CLIENT")) {
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (response.getStatusCode().isError()) {
+                    scope.span().setError("HTTP " + response.getStatusCode().value());
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                scope.error(e);
+                throw e;
+            }
+        }
+    }
+}
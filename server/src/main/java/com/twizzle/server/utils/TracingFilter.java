@@ -0,0 +1,60 @@
+package com.twizzle.server.utils;
+
+import com.twizzle.server.services.TracingService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_HEADER = "X-Trace-Id";
+    private static final Pattern TRACE_ID_PATTERN = Pattern.compile("^[0-9a-fA-F]{8,32}$");
+
+    private final TracingService tracingService;
+
+    public TracingFilter(TracingService tracingService) {
+        this.tracingService = tracingService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        String inboundTraceId = request.getHeader(TRACE_HEADER);
+        String traceId = inboundTraceId != null && TRACE_ID_PATTERN.matcher(inboundTraceId).matches()
+                ? inboundTraceId
+                : null;
+
+        try (TracingService.Scope scope = tracingService.startTrace(traceId,
+                request.getMethod() + " " + request.getRequestURI(), "SERVER")) {
+            response.setHeader(TRACE_HEADER, scope.span().getTraceId());
+
+            try {
+                filterChain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                scope.error(e);
+                throw e;
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    scope.rename(request.getMethod() + " " + pattern);
+                }
+                if (response.getStatus() >= 500 && scope.span().getError() == null) {
+                    scope.span().setError("HTTP " + response.getStatus());
+                }
+            }
+        }
+    }
+}
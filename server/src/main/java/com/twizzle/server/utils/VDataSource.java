@@ -1,35 +1,517 @@
 package com.twizzle.server.utils;
 
 import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.pool.HikariPool;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Component
-public class VDataSource {
+@ConditionalOnProperty(name = "app.database.executor", havingValue = "oracle", matchIfMissing = true)
+public class VDataSource implements MetricsSource {
 
+    /**
+     * Connection budget a caller draws from. Each class has its own permit count, so a burst of slow reads can use up
+     * the read budget without taking the connections that writes and logins need.
+     */
+    public enum ActionClass {
+        READ, WRITE, LOB
+    }
+
+    /** Type that connections from the replica pool report wrapping; see {@link #isReplica}. */
+    private interface ReplicaConnection {
+    }
+
+    private static final int ADAPTIVE_STEP = 5;
+    private static final int ADAPTIVE_GROW_SAMPLES = 3;
+    private static final int ADAPTIVE_SHRINK_SAMPLES = 30;
+
+    private final ObjectProvider<ReplicaLagProbe> lagProbes;
     private DataSource dataSource;
+    private HikariDataSource replica;
+    private ReplicaLagProbe lagProbe;
+    private volatile long replicaRetryAt;
+    private volatile long replicaLagMillis;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder replicaFallbacks = new LongAdder();
+    private ResizableSemaphore connectionGate;
+    private int gatePermits;
+    private final Map<ActionClass, ResizableSemaphore> budgets = new EnumMap<>(ActionClass.class);
+    private final Map<ActionClass, Integer> budgetPermits = new EnumMap<>(ActionClass.class);
+    private final Map<ActionClass, LatencyHistogram> connectionWaits = new EnumMap<>(ActionClass.class);
+    private final Map<ActionClass, LongAdder> budgetTimeouts = new EnumMap<>(ActionClass.class);
+    private final LatencyHistogram unbudgetedWaits = new LatencyHistogram();
+    private int pendingSamples;
+    private int quietSamples;
+
+    public VDataSource(ObjectProvider<ReplicaLagProbe> lagProbes) {
+        this.lagProbes = lagProbes;
+    }
 
     @PostConstruct
     public void init() throws IOException {
         this.dataSource = initDataSource();
+        if (replicaEnabled) {
+            this.replica = initReplicaDataSource();
+            this.lagProbe = lagProbes.getIfAvailable(() -> replicaLagQuery.isBlank() ? null : this::queryLag);
+        }
+        if (connectionGateEnabled) {
+            gatePermits = scaled(connectionGatePermits, 1.0, maximumPoolSize);
+            this.connectionGate = new ResizableSemaphore(gatePermits);
+            Logger.getLogger(VDataSource.class.getName()).log(Level.INFO,
+                    "Connection gate enabled with " + gatePermits + " permits");
+        }
+
+        for (ActionClass actionClass : ActionClass.values()) {
+            budgetPermits.put(actionClass, budgetFor(actionClass, maximumPoolSize));
+            budgets.put(actionClass, new ResizableSemaphore(budgetPermits.get(actionClass)));
+            connectionWaits.put(actionClass, new LatencyHistogram());
+            budgetTimeouts.put(actionClass, new LongAdder());
+        }
+        Logger.getLogger(VDataSource.class.getName()).log(Level.INFO, "Connection budgets: " + budgetPermits);
     }
 
+    /**
+     * Borrows a pooled connection outside any action budget; used by health checks.
+     */
     public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = acquire(null, start + TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMs));
+        unbudgetedWaits.record(System.nanoTime() - start);
+        return connection;
+    }
+
+    /**
+     * Borrows a connection for {@code actionClass} with that class's configured acquire timeout.
+     */
+    public Connection getConnection(ActionClass actionClass) throws SQLException {
+        return getConnection(actionClass, acquireTimeoutMs(actionClass));
+    }
+
+    /**
+     * Borrows a pooled connection on behalf of {@code actionClass}, giving up after {@code timeoutMs} in total. Reads
+     * go to the replica pool while it is reachable and within the lag limit, and to the primary otherwise. For the
+     * primary, the caller first takes a permit from that class's budget, then the connection itself; the permit is
+     * returned when the connection is closed. The whole wait is recorded as connection-wait latency for the class.
+     */
+    public Connection getConnection(ActionClass actionClass, long timeoutMs) throws SQLException {
+        return getConnection(actionClass, timeoutMs, true);
+    }
+
+    /**
+     * Borrows a primary connection for {@code actionClass} within its acquire timeout, even for a read: for callers
+     * that cannot accept an answer as old as the replica lag.
+     */
+    public Connection getPrimaryConnection(ActionClass actionClass) throws SQLException {
+        return getConnection(actionClass, acquireTimeoutMs(actionClass), false);
+    }
+
+    private Connection getConnection(ActionClass actionClass, long timeoutMs, boolean replicaAllowed)
+            throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        if (actionClass == ActionClass.READ && replicaAllowed) {
+            Connection connection = getReplicaConnection(deadline);
+            if (connection != null) {
+                connectionWaits.get(actionClass).record(System.nanoTime() - start);
+                return connection;
+            }
+        }
+
+        Semaphore budget = budgets.get(actionClass);
+        if (!tryAcquire(budget, remainingMillis(deadline), actionClass.name().toLowerCase() + " connection budget")) {
+            budgetTimeouts.get(actionClass).increment();
+            throw new SQLTransientConnectionException("Timed out after " + timeoutMs + "ms waiting for the "
+                    + actionClass.name().toLowerCase() + " connection budget");
+        }
+
+        try {
+            Connection connection = acquire(budget, deadline);
+            connectionWaits.get(actionClass).record(System.nanoTime() - start);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            budget.release();
+            throw e;
+        }
+    }
+
+    /**
+     * With the connection gate enabled, callers queue on a fair semaphore sized to the pool before asking Hikari, so
+     * thousands of virtual threads wait cheaply and in order instead of all contending inside the pool.
+     */
+    private Connection acquire(Semaphore budget, long deadline) throws SQLException {
         if (dataSource == null) {
             throw new SQLException("DataSource not initialized");
         }
+        if (connectionGate != null && !tryAcquire(connectionGate,
+                Math.min(connectionGateTimeoutMs, remainingMillis(deadline)), "database connection permit")) {
+            throw new SQLTransientConnectionException("Timed out waiting for a database connection permit");
+        }
+
+        try {
+            Connection connection = borrow(deadline);
+            if (budget == null && connectionGate == null) {
+                return connection;
+            }
+            return releasingOnClose(connection, () -> {
+                if (connectionGate != null) {
+                    connectionGate.release();
+                }
+                if (budget != null) {
+                    budget.release();
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            if (connectionGate != null) {
+                connectionGate.release();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a connection from Hikari within what is left of the caller's deadline. Hikari's own connection timeout
+     * is pool-wide, so the per-call limit goes through the pool directly.
+     */
+    private Connection borrow(long deadline) throws SQLException {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() instanceof HikariPool pool) {
+            long remaining = remainingMillis(deadline);
+            if (remaining == 0) {
+                throw new SQLTransientConnectionException("Acquire deadline expired before a connection was free");
+            }
+            return pool.getConnection(remaining);
+        }
         return dataSource.getConnection();
     }
 
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    private long acquireTimeoutMs(ActionClass actionClass) {
+        return switch (actionClass) {
+            case READ -> readAcquireTimeoutMs;
+            case WRITE -> writeAcquireTimeoutMs;
+            case LOB -> lobAcquireTimeoutMs;
+        };
+    }
+
+    public boolean isReplicaAvailable() {
+        return replica != null && System.currentTimeMillis() >= replicaRetryAt
+                && (replicaMaxLagMs <= 0 || replicaLagMillis <= replicaMaxLagMs);
+    }
+
+    /**
+     * Takes the replica out of rotation for the retry interval; reads fall back to the primary meanwhile.
+     */
+    public void markReplicaFailed(SQLException e) {
+        replicaFallbacks.increment();
+        if (System.currentTimeMillis() >= replicaRetryAt) {
+            Logger.getLogger(VDataSource.class.getName()).log(Level.WARNING,
+                    "Read replica unavailable, routing reads to the primary for " + replicaRetryMs + "ms: "
+                            + e.getMessage());
+        }
+        replicaRetryAt = System.currentTimeMillis() + replicaRetryMs;
+    }
+
+    /**
+     * Borrows a replica connection within the read acquire timeout, or returns {@code null} when the replica is out of
+     * rotation, busy or cannot be reached so that the caller can use the primary instead.
+     */
+    public Connection getReplicaConnection() {
+        return getReplicaConnection(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readAcquireTimeoutMs));
+    }
+
+    /**
+     * Like {@link #getReplicaConnection()}, waiting no longer than {@code deadline}. Only a failure to connect takes
+     * the replica out of rotation; a pool that is merely exhausted sends this one read to the primary.
+     */
+    private Connection getReplicaConnection(long deadline) {
+        long remaining = remainingMillis(deadline);
+        if (!isReplicaAvailable() || remaining == 0) {
+            return null;
+        }
+        try {
+            Connection connection = replica.getHikariPoolMXBean() instanceof HikariPool pool
+                    ? pool.getConnection(remaining)
+                    : replica.getConnection();
+            replicaReads.increment();
+            return markedAsReplica(connection);
+        } catch (SQLTransientConnectionException e) {
+            // Hikari reports a pool that cannot connect as a timeout too, with the connection failure as the cause.
+            if (e.getCause() != null) {
+                markReplicaFailed(e);
+            } else {
+                replicaFallbacks.increment();
+            }
+            return null;
+        } catch (SQLException e) {
+            markReplicaFailed(e);
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.database.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        if (replica == null || lagProbe == null) {
+            return;
+        }
+        try (Connection connection = replica.getConnection()) {
+            long lag = lagProbe.lagMillis(connection);
+            if (replicaMaxLagMs > 0 && lag > replicaMaxLagMs && replicaLagMillis <= replicaMaxLagMs) {
+                Logger.getLogger(VDataSource.class.getName()).log(Level.WARNING,
+                        "Read replica is " + lag + "ms behind, routing reads to the primary until it catches up");
+            }
+            replicaLagMillis = lag;
+        } catch (SQLException e) {
+            markReplicaFailed(e);
+        }
+    }
+
+    private long queryLag(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(replicaLagQuery);
+                ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? Math.round(resultSet.getDouble(1) * 1000) : 0;
+        }
+    }
+
+    private static boolean tryAcquire(Semaphore permits, long timeoutMs, String what)
+            throws SQLTransientConnectionException {
+        try {
+            return permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a " + what, e);
+        }
+    }
+
+    /**
+     * Whether {@code connection} was borrowed from the read replica. Asked through {@link Connection#isWrapperFor},
+     * so it holds through any wrapper that delegates it, such as the executors' timing proxies.
+     */
+    public static boolean isReplica(Connection connection) {
+        try {
+            return connection.isWrapperFor(ReplicaConnection.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static Connection markedAsReplica(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(VDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("isWrapperFor".equals(method.getName()) && args[0] == ReplicaConnection.class) {
+                        return true;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Connection releasingOnClose(Connection connection, Runnable release) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(VDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            release.run();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Grows the pool by a few connections while callers keep queueing for a connection, up to the configured ceiling,
+     * and shrinks it back towards the configured size once demand has stayed low for a few minutes. Callers queue on
+     * the gate and the budgets rather than inside Hikari, so those queues are the pressure signal, and both are resized
+     * with the pool; otherwise they would cap use of the added connections. Off by default.
+     */
+    @Scheduled(fixedDelayString = "${app.database.pool.adaptive.interval-ms:10000}")
+    public void adjustPoolSize() {
+        if (!adaptiveEnabled || !(dataSource instanceof HikariDataSource hikari)
+                || hikari.getHikariPoolMXBean() == null) {
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+
+        pendingSamples = queuedCallers() > 0 || pool.getThreadsAwaitingConnection() > 0 ? pendingSamples + 1 : 0;
+        quietSamples = pool.getActiveConnections() < current / 2 ? quietSamples + 1 : 0;
+
+        int target = current;
+        if (pendingSamples >= ADAPTIVE_GROW_SAMPLES && current < adaptiveCeiling) {
+            target = Math.min(adaptiveCeiling, current + ADAPTIVE_STEP);
+        } else if (quietSamples >= ADAPTIVE_SHRINK_SAMPLES && current > maximumPoolSize) {
+            target = Math.max(maximumPoolSize, current - ADAPTIVE_STEP);
+        }
+
+        if (target != current) {
+            config.setMaximumPoolSize(target);
+            resizePermits(target);
+            pendingSamples = 0;
+            quietSamples = 0;
+            Logger.getLogger(VDataSource.class.getName()).log(Level.INFO,
+                    "Resized connection pool from " + current + " to " + target + ", budgets " + budgetPermits);
+        }
+    }
+
+    private int queuedCallers() {
+        int queued = connectionGate != null ? connectionGate.getQueueLength() : 0;
+        for (Semaphore budget : budgets.values()) {
+            queued += budget.getQueueLength();
+        }
+        return queued;
+    }
+
+    /**
+     * Scales the gate and the budgets to a pool of {@code poolSize}. Permits held at the time stay valid; a shrunk
+     * semaphore simply hands out no new ones until enough have been returned.
+     */
+    private void resizePermits(int poolSize) {
+        if (connectionGate != null) {
+            int permits = scaled(connectionGatePermits, 1.0, poolSize);
+            connectionGate.resize(gatePermits, permits);
+            gatePermits = permits;
+        }
+        for (ActionClass actionClass : ActionClass.values()) {
+            int permits = budgetFor(actionClass, poolSize);
+            budgets.get(actionClass).resize(budgetPermits.get(actionClass), permits);
+            budgetPermits.put(actionClass, permits);
+        }
+    }
+
+    private int budgetFor(ActionClass actionClass, int poolSize) {
+        return switch (actionClass) {
+            case READ -> scaled(readBudget, 0.6, poolSize);
+            case WRITE -> scaled(writeBudget, 0.8, poolSize);
+            case LOB -> scaled(lobBudget, 0.2, poolSize);
+        };
+    }
+
+    /**
+     * Permits for a pool of {@code poolSize}: a configured count keeps its ratio to the configured pool size, otherwise
+     * {@code share} of the pool.
+     */
+    private int scaled(int configured, double share, int poolSize) {
+        double permits = configured > 0 ? (double) configured * poolSize / maximumPoolSize : poolSize * share;
+        return Math.max(1, (int) Math.round(permits));
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter writer) throws IOException {
+        if (!(dataSource instanceof HikariDataSource hikari) || hikari.getHikariPoolMXBean() == null) {
+            return;
+        }
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        pools.put("primary", hikari);
+        if (replica != null && replica.getHikariPoolMXBean() != null) {
+            pools.put("replica", replica);
+        }
+
+        writer.gauge("twizzle_db_pool_connections", "Hikari pool connections by state");
+        for (Map.Entry<String, HikariDataSource> entry : pools.entrySet()) {
+            HikariPoolMXBean pool = entry.getValue().getHikariPoolMXBean();
+            writer.sample("twizzle_db_pool_connections", pool.getActiveConnections(), "pool", entry.getKey(), "state",
+                    "active");
+            writer.sample("twizzle_db_pool_connections", pool.getIdleConnections(), "pool", entry.getKey(), "state",
+                    "idle");
+        }
+
+        writer.gauge("twizzle_db_pool_max_connections", "Configured maximum pool size");
+        for (Map.Entry<String, HikariDataSource> entry : pools.entrySet()) {
+            writer.sample("twizzle_db_pool_max_connections", entry.getValue().getMaximumPoolSize(), "pool",
+                    entry.getKey());
+        }
+
+        writer.gauge("twizzle_db_pool_pending_threads", "Threads waiting for a connection");
+        for (Map.Entry<String, HikariDataSource> entry : pools.entrySet()) {
+            writer.sample("twizzle_db_pool_pending_threads",
+                    entry.getValue().getHikariPoolMXBean().getThreadsAwaitingConnection(), "pool", entry.getKey());
+        }
+
+        if (replica != null) {
+            writer.gauge("twizzle_db_replica_available", "1 while reads are routed to the replica");
+            writer.sample("twizzle_db_replica_available", isReplicaAvailable() ? 1 : 0);
+
+            writer.gauge("twizzle_db_replica_lag_seconds", "Last measured replica lag");
+            writer.sample("twizzle_db_replica_lag_seconds", replicaLagMillis / 1000.0);
+
+            writer.counter("twizzle_db_read_routing", "Routed read connections by target");
+            writer.total("twizzle_db_read_routing", replicaReads.sum(), "target", "replica");
+            writer.total("twizzle_db_read_routing", replicaFallbacks.sum(), "target", "fallback");
+        }
+
+        writer.summary("twizzle_db_connection_wait_seconds", "Time to obtain a connection, including budget waits");
+        for (ActionClass actionClass : ActionClass.values()) {
+            writer.latency("twizzle_db_connection_wait_seconds", connectionWaits.get(actionClass).snapshot(), "class",
+                    actionClass.name().toLowerCase());
+        }
+        writer.latency("twizzle_db_connection_wait_seconds", unbudgetedWaits.snapshot(), "class", "unbudgeted");
+
+        writer.gauge("twizzle_db_budget_permits", "Connection budget per action class");
+        for (ActionClass actionClass : ActionClass.values()) {
+            writer.sample("twizzle_db_budget_permits", budgetPermits.get(actionClass), "class",
+                    actionClass.name().toLowerCase());
+        }
+
+        writer.gauge("twizzle_db_budget_in_use", "Connection budget permits currently held");
+        for (ActionClass actionClass : ActionClass.values()) {
+            writer.sample("twizzle_db_budget_in_use",
+                    budgetPermits.get(actionClass) - budgets.get(actionClass).availablePermits(), "class",
+                    actionClass.name().toLowerCase());
+        }
+
+        writer.counter("twizzle_db_budget_timeouts", "Callers that gave up waiting for their connection budget");
+        for (ActionClass actionClass : ActionClass.values()) {
+            writer.total("twizzle_db_budget_timeouts", budgetTimeouts.get(actionClass).sum(), "class",
+                    actionClass.name().toLowerCase());
+        }
+
+        if (connectionGate != null) {
+            writer.gauge("twizzle_db_gate_waiting_threads", "Threads queued on the connection gate");
+            writer.sample("twizzle_db_gate_waiting_threads", connectionGate.getQueueLength());
+        }
+    }
+
     private DataSource initDataSource() throws IOException {
         Logger.getLogger(VDataSource.class.getName()).log(Level.INFO, "initDataSource() - Local Oracle Connection");
 
@@ -47,6 +529,29 @@ public class VDataSource {
         }
     }
 
+    private HikariDataSource initReplicaDataSource() throws IOException {
+        try {
+            HikariConfig config = getHikariConfig();
+            config.setPoolName("twizzle-oracle-replica");
+            config.setJdbcUrl(replicaUrl.isBlank() ? url : replicaUrl);
+            config.setUsername(replicaUsername.isBlank() ? username : replicaUsername);
+            config.setPassword(replicaPassword.isBlank() ? password : replicaPassword);
+            config.setMaximumPoolSize(replicaMaximumPoolSize > 0 ? replicaMaximumPoolSize : maximumPoolSize);
+            config.setMinimumIdle(Math.min(minimumIdle, config.getMaximumPoolSize()));
+            config.setReadOnly(true);
+            // Do not block startup on the replica; reads fall back to the primary until it is reachable.
+            config.setInitializationFailTimeout(-1);
+
+            Logger.getLogger(VDataSource.class.getName()).log(Level.INFO,
+                    "Read replica DataSource initialized with URL: " + config.getJdbcUrl());
+            return new HikariDataSource(config);
+        } catch (Exception e) {
+            Logger.getLogger(VDataSource.class.getName()).log(Level.SEVERE, "Failed to initialize replica DataSource",
+                    e);
+            throw new IOException("Failed to initialize replica DataSource: " + e.getMessage(), e);
+        }
+    }
+
     private HikariConfig getHikariConfig() {
         HikariConfig config = getConfig();
 
@@ -61,8 +566,12 @@ public class VDataSource {
         config.addDataSourceProperty("oracle.net.CONNECT_TIMEOUT", "10000");
         config.addDataSourceProperty("oracle.jdbc.useFetchSizeWithLongColumn", "true");
 
-        // Oracle performance tuning
-        config.addDataSourceProperty("oracle.jdbc.defaultRowPrefetch", "20");
+        // Oracle performance tuning; DBService overrides the row prefetch per action where it knows better
+        config.addDataSourceProperty("oracle.jdbc.defaultRowPrefetch", String.valueOf(defaultRowPrefetch));
+        if (lobPrefetchSize >= 0) {
+            // Bytes of each LOB returned inline with the row instead of in a separate round trip
+            config.addDataSourceProperty("oracle.jdbc.defaultLobPrefetchSize", String.valueOf(lobPrefetchSize));
+        }
         config.addDataSourceProperty("oracle.jdbc.maxCachedBufferSize", "50");
         return config;
     }
@@ -74,18 +583,108 @@ public class VDataSource {
         config.setPassword(password);
         config.setDriverClassName(driverClassName);
 
-        // Optimized pool settings for high performance
-        config.setMaximumPoolSize(25); // Increased for better concurrency
-        config.setMinimumIdle(10); // Higher minimum for faster response times
-        config.setConnectionTimeout(15000); // Reduced timeout for faster failure detection
-        config.setIdleTimeout(300000); // 5 minutes idle timeout
-        config.setMaxLifetime(900000); // 15 minutes max lifetime
-        config.setLeakDetectionThreshold(30000); // 30 seconds leak detection
+        config.setPoolName("twizzle-oracle");
+        // Session defaults are applied when a connection is opened; Hikari only resets them on return if a caller
+        // changed them, so borrowers never need to set them again.
+        config.setAutoCommit(true);
+        config.setTransactionIsolation("TRANSACTION_READ_COMMITTED");
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(Math.min(minimumIdle, maximumPoolSize));
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setIdleTimeout(idleTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+        config.setLeakDetectionThreshold(leakDetectionThresholdMs);
         config.setValidationTimeout(5000); // 5 seconds validation timeout
         config.setInitializationFailTimeout(10000); // 10 seconds init timeout
         return config;
     }
 
+    @Value("${app.database.pool.maximum-size:25}")
+    private int maximumPoolSize;
+
+    @Value("${app.database.pool.minimum-idle:10}")
+    private int minimumIdle;
+
+    @Value("${app.database.pool.connection-timeout-ms:15000}")
+    private long connectionTimeoutMs;
+
+    /** Total time a caller waits for budget, gate and pool before failing, per action class. */
+    @Value("${app.database.acquire-timeout-ms.read:5000}")
+    private long readAcquireTimeoutMs;
+
+    @Value("${app.database.acquire-timeout-ms.write:15000}")
+    private long writeAcquireTimeoutMs;
+
+    @Value("${app.database.acquire-timeout-ms.lob:15000}")
+    private long lobAcquireTimeoutMs;
+
+    @Value("${app.database.pool.idle-timeout-ms:300000}")
+    private long idleTimeoutMs;
+
+    @Value("${app.database.pool.max-lifetime-ms:900000}")
+    private long maxLifetimeMs;
+
+    @Value("${app.database.pool.leak-detection-threshold-ms:30000}")
+    private long leakDetectionThresholdMs;
+
+    @Value("${app.database.pool.adaptive.enabled:false}")
+    private boolean adaptiveEnabled;
+
+    @Value("${app.database.pool.adaptive.ceiling:50}")
+    private int adaptiveCeiling;
+
+    /** Permits per action class; 0 means a share of the pool size (60% reads, 80% writes, 20% LOB operations). */
+    @Value("${app.database.budget.read:0}")
+    private int readBudget;
+
+    @Value("${app.database.budget.write:0}")
+    private int writeBudget;
+
+    @Value("${app.database.budget.lob:0}")
+    private int lobBudget;
+
+    @Value("${app.database.connection-gate.enabled:${spring.threads.virtual.enabled:false}}")
+    private boolean connectionGateEnabled;
+
+    @Value("${app.database.connection-gate.permits:0}")
+    private int connectionGatePermits;
+
+    @Value("${app.database.connection-gate.timeout-ms:15000}")
+    private long connectionGateTimeoutMs;
+
+    @Value("${app.database.default-row-prefetch:20}")
+    private int defaultRowPrefetch;
+
+    /** -1 keeps the driver default. */
+    @Value("${app.database.lob-prefetch-size:-1}")
+    private int lobPrefetchSize;
+
+    @Value("${app.database.replica.enabled:false}")
+    private boolean replicaEnabled;
+
+    /** Replica connection settings; blank values reuse the primary's. */
+    @Value("${app.database.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.database.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${app.database.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${app.database.replica.maximum-size:0}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${app.database.replica.retry-ms:30000}")
+    private long replicaRetryMs;
+
+    /** Reads leave the replica while its measured lag exceeds this; 0 disables the check. */
+    @Value("${app.database.replica.max-lag-ms:0}")
+    private long replicaMaxLagMs;
+
+    @Value("${app.database.replica.lag-query:}")
+    private String replicaLagQuery;
+
     @Value("${spring.datasource.url}")
     private String url;
 
@@ -97,4 +696,23 @@ public class VDataSource {
 
     @Value("${spring.datasource.driver-class-name}")
     private String driverClassName;
+
+    /**
+     * Fair semaphore whose permit count can be changed while callers hold and wait for permits.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        void resize(int from, int to) {
+            if (to > from) {
+                release(to - from);
+            } else if (to < from) {
+                reducePermits(from - to);
+            }
+        }
+    }
 }
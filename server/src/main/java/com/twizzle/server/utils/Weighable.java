@@ -0,0 +1,14 @@
+package com.twizzle.server.utils;
+
+/**
+ * A cached value that knows roughly how much memory it holds, so size-weighted caches can weigh it without walking
+ * or serialising it. The estimate only has to be proportionate, not exact, and must be cheap: it runs on every put
+ * and refresh.
+ */
+public interface Weighable {
+
+    /**
+     * Approximate retained size in bytes.
+     */
+    long estimatedBytes();
+}
@@ -0,0 +1,157 @@
+package com.twizzle.server.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Line-oriented redo log for state that is acknowledged before it reaches the database. Every accepted change is
+ * appended before the caller returns; {@link #checkpoint} starts a new file holding only what is still pending and
+ * deletes the older ones, so the journal stays proportional to the unflushed backlog.
+ *
+ * <p>
+ * Appends go to the OS page cache right away and survive a crash of the JVM. They reach the disk on {@link #sync()},
+ * which the owner calls on a short interval, so a machine crash can lose at most that interval. Appends may run
+ * concurrently; a checkpoint excludes them while it swaps files. Call {@link #checkpoint} once after
+ * {@link #recover} before the first append.
+ */
+@Slf4j
+public class WriteBehindJournal implements AutoCloseable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private long sequence;
+
+    public WriteBehindJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        List<Path> files = files();
+        sequence = files.isEmpty() ? 0 : sequenceOf(files.get(files.size() - 1));
+    }
+
+    /**
+     * Returns every line of the existing journal files, oldest first. Lines of a file cut short by a crash are
+     * dropped.
+     */
+    public List<String> recover() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path file : files()) {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int end = content.lastIndexOf('\n');
+            if (end < 0) {
+                continue;
+            }
+            for (String line : content.substring(0, end).split("\n")) {
+                if (!line.isBlank()) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Applies {@code change} and appends the line it returns (nothing if {@code null}) while no checkpoint can run,
+     * so a change is either covered by the next checkpoint or appended to the file that follows it.
+     */
+    public void append(Supplier<String> change) throws IOException {
+        lock.readLock().lock();
+        try {
+            String line = change.get();
+            if (line != null) {
+                channel.write(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a new file containing {@code pending} (computed while appends are held off), forces it to disk and
+     * deletes all older files.
+     */
+    public void checkpoint(Supplier<List<String>> pending) throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<Path> previous = files();
+            Path next = directory.resolve(PREFIX + (++sequence) + SUFFIX);
+            FileChannel nextChannel = FileChannel.open(next, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            StringBuilder content = new StringBuilder();
+            for (String line : pending.get()) {
+                content.append(line).append('\n');
+            }
+            nextChannel.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+            nextChannel.force(false);
+
+            FileChannel old = channel;
+            channel = nextChannel;
+            if (old != null) {
+                old.close();
+            }
+            for (Path file : previous) {
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void sync() {
+        FileChannel current = channel;
+        try {
+            if (current != null && current.isOpen()) {
+                current.force(false);
+            }
+        } catch (IOException e) {
+            log.warn("Could not sync journal {}: {}", directory, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                    && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparingLong(WriteBehindJournal::sequenceOf)).toList();
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.twizzle.server.controllers;
+
+import com.twizzle.server.exceptions.CustomException;
+import com.twizzle.server.services.DBService;
+import com.twizzle.server.services.EngagementCounterService;
+import com.twizzle.server.services.OracleDbActionExecutor;
+import com.twizzle.server.utils.PageCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cursors must only be handed out when the backend seeks on them; otherwise a client following them would be served
+ * the first page forever.
+ */
+class PostControllerCursorTest {
+
+    private DBService dbService;
+    private PostController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbService = mock(DBService.class);
+        controller = new PostController(dbService, mock(EngagementCounterService.class));
+        when(dbService.executeQuery(any())).thenReturn(List.of(fullPage(10)));
+    }
+
+    @Test
+    void oracleExecutorDoesNotSeekUnlessConfigured() {
+        assertFalse(new OracleDbActionExecutor(null, null, null).supportsKeysetPaging());
+    }
+
+    @Test
+    void noCursorIsHandedOutWhenTheBackendCannotSeek() {
+        when(dbService.supportsKeysetPaging()).thenReturn(false);
+
+        Map<String, Object> page = controller.getAllPostsPaged(0, 10, null, null).getBody();
+
+        assertNotNull(page);
+        assertFalse(page.containsKey("nextCursor"));
+    }
+
+    @Test
+    void cursorIsRejectedWhenTheBackendCannotSeek() throws Exception {
+        when(dbService.supportsKeysetPaging()).thenReturn(false);
+        String cursor = new PageCursor("2024-01-01T00:00", 5).encode();
+
+        CustomException e = assertThrows(CustomException.class,
+                () -> controller.getAllPostsPaged(0, 10, cursor, null));
+
+        assertEquals(400, e.getCode());
+        verify(dbService, never()).executeQuery(any());
+    }
+
+    @Test
+    void cursorIsHandedOutWhenTheBackendSeeks() {
+        when(dbService.supportsKeysetPaging()).thenReturn(true);
+
+        Map<String, Object> page = controller.getAllPostsPaged(0, 10, null, null).getBody();
+
+        assertNotNull(page);
+        assertTrue(page.get("nextCursor") instanceof String);
+        assertEquals(10L, PageCursor.decode((String) page.get("nextCursor")).id());
+    }
+
+    private static Map<String, Object> fullPage(int size) {
+        List<Map<String, Object>> content = new ArrayList<>();
+        for (int id = 1; id <= size; id++) {
+            content.add(Map.of("id", (long) id, "createdAt", "2024-01-01T00:00:" + (10 + id)));
+        }
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("content", content);
+        page.put("hasNext", true);
+        return page;
+    }
+}